@@ -0,0 +1,38 @@
+// HTTP load test for the user API (https://k6.io)
+//
+// Thread mode comparison, same database and data set, run once per mode:
+//   VIRTUAL_THREADS_ENABLED=false ./gradlew bootRun   ->  k6 run benchmarks/user-api-load.js
+//   VIRTUAL_THREADS_ENABLED=true  ./gradlew bootRun   ->  k6 run benchmarks/user-api-load.js
+// Inject database latency while it runs (e.g. `tc qdisc add dev eth0 root netem delay 50ms`
+// on the Postgres host) to reproduce request-thread exhaustion in platform-thread mode.
+//
+// Environment: BASE_URL (default http://localhost:8080), MAX_USER_ID (default 1000),
+// RATE (requests per second, default 500), DURATION (default 2m)
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MAX_USER_ID = parseInt(__ENV.MAX_USER_ID || '1000');
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-arrival-rate',
+            rate: parseInt(__ENV.RATE || '500'),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const res = Math.random() < 0.8
+        ? http.get(`${BASE_URL}/api/v1/users/${1 + Math.floor(Math.random() * MAX_USER_ID)}`, { tags: { name: 'getUserById' } })
+        : http.get(`${BASE_URL}/api/v1/users?size=20&active=true`, { tags: { name: 'getAllUsers' } });
+
+    check(res, { 'status is 2xx': (r) => r.status >= 200 && r.status < 300 });
+}
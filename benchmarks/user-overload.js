@@ -0,0 +1,108 @@
+// Overload test for the user API concurrency limit (https://k6.io)
+//
+// Runs the read/write mix at RATE (about what the service sustains) and then at 5x RATE.
+// With the limit on, goodput (2xx per second) in the overload phase should stay close to the
+// baseline phase, the excess answered fast with 503 + Retry-After, and 2xx latency staying put.
+// Compare against CONCURRENCY_LIMIT_ENABLED=false, where requests queue for a database
+// connection until they time out and goodput collapses.
+//
+// Environment: BASE_URL (default http://localhost:8080), MAX_USER_ID (default 1000),
+// RATE (requests per second in the baseline phase, default 300), PHASE (duration of each
+// phase, default 1m), OVERLOAD (multiplier for the second phase, default 5)
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+import exec from 'k6/execution';
+import { textSummary } from 'https://jslib.k6.io/k6-summary/0.0.2/index.js';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MAX_USER_ID = parseInt(__ENV.MAX_USER_ID || '1000');
+const RATE = parseInt(__ENV.RATE || '300');
+const PHASE = __ENV.PHASE || '1m';
+const OVERLOAD = parseInt(__ENV.OVERLOAD || '5');
+const RUN_ID = Date.now();
+
+const goodput = new Counter('goodput');
+const shed = new Counter('shed');
+const goodLatency = new Trend('good_latency', true);
+
+function phase(rate, startTime) {
+    return {
+        executor: 'constant-arrival-rate',
+        rate: rate,
+        timeUnit: '1s',
+        duration: PHASE,
+        startTime: startTime,
+        preAllocatedVUs: 200,
+        maxVUs: 3000,
+        gracefulStop: '30s',
+    };
+}
+
+function seconds(duration) {
+    const match = /^(\d+)(s|m)$/.exec(duration);
+    return match[2] === 'm' ? parseInt(match[1]) * 60 : parseInt(match[1]);
+}
+
+export const options = {
+    scenarios: {
+        baseline: phase(RATE, '0s'),
+        overload: phase(RATE * OVERLOAD, `${seconds(PHASE) + 10}s`),
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    // Thresholds make k6 keep the per-phase sub-metrics used in handleSummary
+    thresholds: {
+        'goodput{scenario:baseline}': ['count>0'],
+        'goodput{scenario:overload}': ['count>0'],
+        'shed{scenario:overload}': ['count>=0'],
+        'good_latency{scenario:baseline}': ['p(99)>=0'],
+        'good_latency{scenario:overload}': ['p(99)>=0'],
+    },
+};
+
+export default function () {
+    const n = exec.scenario.iterationInTest;
+    let res;
+    if (Math.random() < 0.8) {
+        res = Math.random() < 0.8
+            ? http.get(`${BASE_URL}/api/v1/users/${1 + Math.floor(Math.random() * MAX_USER_ID)}`, { tags: { name: 'getUserById' } })
+            : http.get(`${BASE_URL}/api/v1/users?size=20&active=true&count=cached`, { tags: { name: 'getAllUsers' } });
+    } else {
+        res = http.post(`${BASE_URL}/api/v1/users`, JSON.stringify({
+            name: `Overload ${n}`,
+            email: `overload-${RUN_ID}-${exec.scenario.name}-${n}@example.com`,
+            phone: `+1555${1000000 + (n % 8999999)}`,
+        }), { headers: { 'Content-Type': 'application/json' }, tags: { name: 'createUser' } });
+    }
+
+    if (res.status >= 200 && res.status < 300) {
+        goodput.add(1);
+        goodLatency.add(res.timings.duration);
+    } else if (res.status === 503) {
+        shed.add(1);
+    }
+    check(res, {
+        'served or shed': (r) => (r.status >= 200 && r.status < 300) || r.status === 503,
+        'shed with Retry-After': (r) => r.status !== 503 || r.headers['Retry-After'] !== undefined,
+    });
+}
+
+export function handleSummary(data) {
+    const phaseSeconds = seconds(PHASE);
+    const rate = (metric) => (data.metrics[metric] ? data.metrics[metric].values.count / phaseSeconds : 0);
+    const p99 = (metric) => (data.metrics[metric] ? data.metrics[metric].values['p(99)'] : 0);
+
+    const baseline = rate('goodput{scenario:baseline}');
+    const overload = rate('goodput{scenario:overload}');
+    const report = [
+        '',
+        `goodput baseline: ${baseline.toFixed(1)}/s, p99 ${p99('good_latency{scenario:baseline}').toFixed(1)} ms`,
+        `goodput ${OVERLOAD}x overload: ${overload.toFixed(1)}/s, p99 ${p99('good_latency{scenario:overload}').toFixed(1)} ms, `
+            + `shed ${rate('shed{scenario:overload}').toFixed(1)}/s`,
+        `goodput retained under overload: ${baseline > 0 ? ((100 * overload) / baseline).toFixed(0) : 0}%`,
+        '',
+    ].join('\n');
+
+    return { stdout: textSummary(data, { indent: ' ', enableColors: true }) + report };
+}
@@ -0,0 +1,56 @@
+-- Substring search benchmark (psql), run against a scratch database:
+--   psql -d userdb_bench -f benchmarks/user-search.sql
+-- Loads 1M users, then times the nameFilter query and the /search query
+-- with and without the pg_trgm indexes from schema-postgresql.sql.
+
+\timing on
+
+DROP TABLE IF EXISTS users;
+CREATE TABLE users (
+    id         bigserial PRIMARY KEY,
+    name       varchar(255) NOT NULL,
+    email      varchar(255) NOT NULL UNIQUE,
+    phone      varchar(255) NOT NULL,
+    role       varchar(255) NOT NULL,
+    active     boolean      NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6)
+);
+
+INSERT INTO users (name, email, phone, role, active, created_at, updated_at)
+SELECT 'User ' || md5(g::text),
+       'user' || g || '@example' || (g % 100) || '.com',
+       '+1' || lpad((g * 7919 % 1000000000)::text, 10, '0'),
+       (ARRAY['USER', 'ADMIN', 'MODERATOR'])[1 + g % 3],
+       g % 10 <> 0,
+       now() - (g || ' seconds')::interval,
+       now()
+FROM generate_series(1, 1000000) g;
+
+ANALYZE users;
+
+\echo '--- before: sequential scan ---'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM users u WHERE lower(u.name) LIKE '%a3f9%' ORDER BY u.id LIMIT 10;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM users u WHERE lower(u.name) LIKE '%a3f9%';
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX idx_users_phone_trgm ON users USING gin (phone gin_trgm_ops);
+ANALYZE users;
+
+\echo '--- after: trigram bitmap index scan ---'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM users u WHERE lower(u.name) LIKE '%a3f9%' ORDER BY u.id LIMIT 10;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM users u WHERE lower(u.name) LIKE '%a3f9%';
+
+\echo '--- /search over name, email and phone ---'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM users u
+WHERE lower(u.name) LIKE '%a3f9%' OR lower(u.email) LIKE '%a3f9%' OR u.phone LIKE '%a3f9%'
+ORDER BY greatest(similarity(lower(u.name), 'a3f9'), similarity(lower(u.email), 'a3f9'),
+                  similarity(u.phone, 'a3f9')) DESC, u.id
+LIMIT 10;
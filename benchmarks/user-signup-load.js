@@ -0,0 +1,51 @@
+// Sign-up write latency for the user API (https://k6.io)
+//
+// Replays peak sign-up traffic: mostly new emails, a share of retries with an email that is
+// already registered (409), plus the availability check sign-up forms call before submitting.
+// Compare p95/p99 of the createUser tag before and after a change at the same RATE.
+//
+// Environment: BASE_URL (default http://localhost:8080), RATE (sign-ups per second,
+// default 200), DURATION (default 5m), DUPLICATE_RATIO (default 0.05)
+
+import http from 'k6/http';
+import { check } from 'k6';
+import exec from 'k6/execution';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const DUPLICATE_RATIO = parseFloat(__ENV.DUPLICATE_RATIO || '0.05');
+const RUN_ID = Date.now();
+
+export const options = {
+    scenarios: {
+        signups: {
+            executor: 'constant-arrival-rate',
+            rate: parseInt(__ENV.RATE || '200'),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '5m',
+            preAllocatedVUs: 100,
+            maxVUs: 1000,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{name:createUser}': ['p(99)<250'],
+    },
+};
+
+export default function () {
+    const iteration = exec.scenario.iterationInTest;
+    const duplicate = iteration > 0 && Math.random() < DUPLICATE_RATIO;
+    const n = duplicate ? Math.floor(Math.random() * iteration) : iteration;
+    const email = `signup-${RUN_ID}-${n}@example.com`;
+
+    http.get(`${BASE_URL}/api/v1/users/email-availability?email=${encodeURIComponent(email)}`,
+        { tags: { name: 'emailAvailability' } });
+
+    const res = http.post(`${BASE_URL}/api/v1/users`, JSON.stringify({
+        name: `Signup ${n}`,
+        email: email,
+        phone: `+1555${1000000 + (n % 8999999)}`,
+    }), { headers: { 'Content-Type': 'application/json' }, tags: { name: 'createUser' } });
+
+    check(res, { 'created or conflict': (r) => r.status === 201 || r.status === 409 });
+}
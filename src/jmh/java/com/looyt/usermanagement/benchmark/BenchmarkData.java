@@ -0,0 +1,79 @@
+package com.looyt.usermanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.looyt.usermanagement.UsermanagementApplication;
+import com.looyt.usermanagement.model.User;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Shared fixtures for the benchmarks
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static User user(long id) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0).plusSeconds(id);
+        return new User(id, "User " + id, "user" + id + "@example.com", "+1555" + (1000000 + id),
+                id % 10 == 0 ? User.UserRole.ADMIN : User.UserRole.USER, id % 7 != 0, now, now, null);
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            users.add(user(id));
+        }
+        return users;
+    }
+
+    /**
+     * ObjectMapper configured like the one Spring Boot builds for the application
+     */
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * Start the application on embedded H2 (PostgreSQL mode) with Kafka listeners and the
+     * outbox relay switched off, so service benchmarks need no external services
+     * Read coalescing is off as well: its list window would let repeated identical listings
+     * reuse one result, so every call runs the query path
+     */
+    static ConfigurableApplicationContext startContext(String... extraArgs) {
+        String[] args = {
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.sql.init.mode=never",
+                "--spring.kafka.listener.auto-startup=false",
+                "--spring.kafka.admin.auto-create=false",
+                "--spring.kafka.properties.security.protocol=PLAINTEXT",
+                "--user.outbox.relay.enabled=false",
+                "--user.coalescing.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.looyt.usermanagement=WARN"
+        };
+
+        // Command line arguments take precedence over application.properties
+        return new SpringApplicationBuilder(UsermanagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(Stream.concat(Stream.of(args), Stream.of(extraArgs)).toArray(String[]::new));
+    }
+}
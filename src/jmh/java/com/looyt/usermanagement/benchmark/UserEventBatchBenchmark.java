@@ -0,0 +1,74 @@
+package com.looyt.usermanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.usermanagement.cache.UserCache;
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.kafka.UserCacheEventHandler;
+import com.looyt.usermanagement.mapper.UserMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch Consumer Benchmark
+ * Feeds an in-memory backlog of user-events records to the cache handler in poll-sized
+ * batches, batchSize=1 is the record-at-a-time listener. Score is records per millisecond.
+ * No broker is involved, so fetch and deserialization costs are not part of the numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserEventBatchBenchmark {
+
+    private static final int BACKLOG = 10_000;
+    private static final int PARTITIONS = 3;
+    private static final int DISTINCT_USERS = 1_000;
+
+    @Param({"1", "100", "500"})
+    private int batchSize;
+
+    private final List<List<ConsumerRecord<String, UserEvent>>> polls = new ArrayList<>();
+    private UserCacheEventHandler handler;
+
+    @Setup
+    public void setUp() {
+        UserCache userCache = new UserCache(true, 100_000, Duration.ofMinutes(10), new ObjectMapper(), new SimpleMeterRegistry());
+        handler = new UserCacheEventHandler(userCache);
+
+        UserMapperImpl userMapper = new UserMapperImpl();
+        UserEvent.EventType[] types = UserEvent.EventType.values();
+        List<ConsumerRecord<String, UserEvent>> backlog = new ArrayList<>(BACKLOG);
+        for (int i = 0; i < BACKLOG; i++) {
+            long userId = i % DISTINCT_USERS + 1;
+            UserEvent event = UserEvent.createEvent(userId, types[i % types.length].name(),
+                    userMapper.toResponse(BenchmarkData.user(userId)), "SYSTEM");
+            backlog.add(new ConsumerRecord<>("user-events", i % PARTITIONS, i / PARTITIONS,
+                    String.valueOf(userId), event));
+        }
+
+        for (int from = 0; from < BACKLOG; from += batchSize) {
+            polls.add(backlog.subList(from, Math.min(from + batchSize, BACKLOG)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BACKLOG)
+    public void drainBacklog() {
+        for (List<ConsumerRecord<String, UserEvent>> poll : polls) {
+            handler.handleBatch(poll);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.looyt.usermanagement.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.mapper.UserMapper;
+import com.looyt.usermanagement.mapper.UserMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event and JSON Benchmark
+ * Event creation plus Jackson (de)serialization of the Kafka payload and the list response
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserEventBenchmark {
+
+    private final ObjectMapper objectMapper = BenchmarkData.objectMapper();
+    private UserDTO.UserResponse user;
+    private UserEvent event;
+    private String eventJson;
+    private UserDTO.UserListResponse listResponse;
+    private String listJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        UserMapper userMapper = new UserMapperImpl();
+        user = userMapper.toResponse(BenchmarkData.user(42));
+        event = UserEvent.createEvent(user.getId(), UserEvent.EventType.UPDATED.name(), user, "SYSTEM");
+        eventJson = objectMapper.writeValueAsString(event);
+        listResponse = userMapper.pageToListResponse(
+                new PageImpl<>(BenchmarkData.users(20), PageRequest.of(0, 20), 1_000_000));
+        listJson = objectMapper.writeValueAsString(listResponse);
+    }
+
+    @Benchmark
+    public UserEvent createEvent() {
+        return UserEvent.createEvent(user.getId(), UserEvent.EventType.UPDATED.name(), user, "SYSTEM");
+    }
+
+    @Benchmark
+    public byte[] serializeEvent() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public UserEvent deserializeEvent() throws JsonProcessingException {
+        return objectMapper.readValue(eventJson, UserEvent.class);
+    }
+
+    @Benchmark
+    public byte[] serializeListResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(listResponse);
+    }
+
+    @Benchmark
+    public UserDTO.UserListResponse deserializeListResponse() throws JsonProcessingException {
+        return objectMapper.readValue(listJson, UserDTO.UserListResponse.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.looyt.usermanagement.benchmark;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.kafka.UserEventDeserializer;
+import com.looyt.usermanagement.kafka.UserEventSerializer;
+import com.looyt.usermanagement.mapper.UserMapperImpl;
+import com.looyt.usermanagement.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserEvent Wire Format Benchmark
+ * JSON against UserEventBinaryCodec through the Kafka serializer and deserializer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserEventCodecBenchmark {
+
+    private static final String TOPIC = "user-events";
+
+    @Param({"json", "binary"})
+    private String format;
+
+    private final UserEventSerializer serializer = new UserEventSerializer();
+    private final UserEventDeserializer deserializer = new UserEventDeserializer();
+    private UserEvent event;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        serializer.configure(Map.of(UserEventSerializer.BINARY_TOPICS_CONFIG, format.equals("binary") ? TOPIC : ""), false);
+        User user = BenchmarkData.user(42);
+        user.setVersion(3L);
+        event = UserEvent.createEvent(42L, UserEvent.EventType.UPDATED.name(),
+                new UserMapperImpl().toResponse(user), "SYSTEM");
+        encoded = serializer.serialize(TOPIC, event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public UserEvent deserialize() {
+        return deserializer.deserialize(TOPIC, encoded);
+    }
+}
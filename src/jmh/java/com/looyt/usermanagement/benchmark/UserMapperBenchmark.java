@@ -0,0 +1,60 @@
+package com.looyt.usermanagement.benchmark;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.mapper.UserMapper;
+import com.looyt.usermanagement.mapper.UserMapperImpl;
+import com.looyt.usermanagement.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapper Benchmark
+ * Cost of the entity to response conversions on the read path
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserMapperBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final UserMapper userMapper = new UserMapperImpl();
+    private User user;
+    private List<User> users;
+    private Page<User> page;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkData.user(42);
+        users = BenchmarkData.users(pageSize);
+        page = new PageImpl<>(users, PageRequest.of(0, pageSize), 1_000_000);
+    }
+
+    @Benchmark
+    public UserDTO.UserResponse toResponse() {
+        return userMapper.toResponse(user);
+    }
+
+    @Benchmark
+    public List<UserDTO.UserResponse> toResponseList() {
+        return userMapper.toResponseList(users);
+    }
+
+    @Benchmark
+    public UserDTO.UserListResponse pageToListResponse() {
+        return userMapper.pageToListResponse(page);
+    }
+}
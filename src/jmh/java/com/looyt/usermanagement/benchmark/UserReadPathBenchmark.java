@@ -0,0 +1,94 @@
+package com.looyt.usermanagement.benchmark;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.mapper.UserMapper;
+import com.looyt.usermanagement.model.User;
+import com.looyt.usermanagement.repository.UserRepository;
+import com.looyt.usermanagement.repository.UserSpecifications;
+import com.looyt.usermanagement.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read Path Benchmark
+ * Managed entities (entity graph + snapshot + MapStruct copy) against DTO projections in
+ * read-only transactions, for a single user and a page of 20. Sample time mode reports
+ * percentiles (p0.99), the gc profiler reports bytes allocated per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserReadPathBenchmark {
+
+    private static final int SEEDED_USERS = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserMapper userMapper;
+    private Specification<User> activeUsers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startContext("--user.cache.enabled=false");
+        userRepository = context.getBean(UserRepository.class);
+        userMapper = context.getBean(UserMapper.class);
+
+        UserService userService = context.getBean(UserService.class);
+        for (long n = 1; n <= SEEDED_USERS; n++) {
+            userService.createUser(new UserDTO.CreateUserRequest(
+                    "Bench User " + n, "bench" + n + "@example.com", "+1555" + (1000000 + n), User.UserRole.USER));
+        }
+
+        UserDTO.UserFilter filter = new UserDTO.UserFilter();
+        filter.setActive(true);
+        activeUsers = UserSpecifications.matching(filter);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO.UserResponse byIdEntity() {
+        return userMapper.toResponse(userRepository.findById(randomId()).orElseThrow());
+    }
+
+    @Benchmark
+    public UserDTO.UserResponse byIdProjection() {
+        return userRepository.findResponseById(randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public UserDTO.UserListResponse pageEntity() {
+        return userMapper.pageToListResponse(userRepository.findAll(activeUsers, randomPage()));
+    }
+
+    @Benchmark
+    public UserDTO.UserListResponse pageProjection() {
+        return userMapper.responsePageToListResponse(userRepository.findResponses(activeUsers, randomPage()));
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, SEEDED_USERS + 1);
+    }
+
+    private static PageRequest randomPage() {
+        return PageRequest.of(ThreadLocalRandom.current().nextInt(0, SEEDED_USERS / PAGE_SIZE), PAGE_SIZE, Sort.by("id"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.looyt.usermanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.usermanagement.cache.UserCache;
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.mapper.UserMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /users/{id} Body Benchmark
+ * Cost of producing the response body on a user cache hit: Jackson serialization of the cached
+ * UserResponse per request against the JSON kept by UserCache. A 304 for a matching
+ * If-None-Match sends no body at all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserResponseBodyBenchmark {
+
+    private static final int USERS = 1_000;
+
+    // Configured like the application mapper (ISO dates, see spring.jackson.*)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private UserCache userCache;
+
+    @Setup
+    public void setUp() {
+        userCache = new UserCache(true, USERS, Duration.ofMinutes(10), objectMapper, new SimpleMeterRegistry());
+        UserMapperImpl userMapper = new UserMapperImpl();
+        for (long id = 1; id <= USERS; id++) {
+            UserDTO.UserResponse user = userMapper.toResponse(BenchmarkData.user(id));
+            user.setVersion(1L);
+            userCache.put(user);
+            userCache.serialize(user);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePerRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(userCache.get(randomId()).orElseThrow());
+    }
+
+    @Benchmark
+    public byte[] cachedJson() {
+        return userCache.getSerialized(randomId()).orElseThrow().json();
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, USERS + 1);
+    }
+}
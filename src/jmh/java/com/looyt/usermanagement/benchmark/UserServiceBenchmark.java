@@ -0,0 +1,120 @@
+package com.looyt.usermanagement.benchmark;
+
+import com.looyt.usermanagement.cache.EmailMembershipFilter;
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.exception.DuplicateResourceException;
+import com.looyt.usermanagement.model.User;
+import com.looyt.usermanagement.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service Benchmark
+ * Runs UserService against an embedded H2 database (PostgreSQL mode) with Kafka listeners
+ * and the outbox relay switched off, so the numbers cover mapping, JPA and the outbox insert
+ * but not the network. Read coalescing is off, every listing call runs its queries.
+ * Use them to compare builds, not as production latencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserServiceBenchmark {
+
+    private static final int SEEDED_USERS = 10_000;
+
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserDTO.UserFilter noFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startContext(
+                "--user.cache.enabled=" + cacheEnabled,
+                "--user.email-filter.enabled=true");
+        userService = context.getBean(UserService.class);
+        noFilter = new UserDTO.UserFilter();
+
+        for (int i = 0; i < SEEDED_USERS; i++) {
+            createUser();
+        }
+        context.getBean(EmailMembershipFilter.class).rebuild();
+        // Read every seeded user once so cacheEnabled=true measures a warm cache
+        for (long id = 1; id <= SEEDED_USERS; id++) {
+            userService.getUserById(id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO.UserResponse createUser() {
+        long n = sequence.incrementAndGet();
+        return userService.createUser(new UserDTO.CreateUserRequest(
+                "Bench User " + n, "bench" + n + "@example.com", "+1555" + (1000000 + n), User.UserRole.USER));
+    }
+
+    /**
+     * Conflict path: the insert fails on the unique email constraint and is rolled back
+     */
+    @Benchmark
+    public Object createUserDuplicateEmail() {
+        long n = ThreadLocalRandom.current().nextLong(1, SEEDED_USERS + 1);
+        try {
+            return userService.createUser(new UserDTO.CreateUserRequest(
+                    "Bench User " + n, "bench" + n + "@example.com", "+1555" + (1000000 + n), User.UserRole.USER));
+        } catch (DuplicateResourceException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Never-registered email, answered by the membership filter without a query
+     */
+    @Benchmark
+    public boolean isEmailAvailableNewEmail() {
+        return userService.isEmailAvailable("new" + ThreadLocalRandom.current().nextLong() + "@example.com");
+    }
+
+    @Benchmark
+    public UserDTO.UserResponse getUserById() {
+        return userService.getUserById(ThreadLocalRandom.current().nextLong(1, SEEDED_USERS + 1));
+    }
+
+    @Benchmark
+    public UserDTO.UserListResponse getAllUsers() {
+        return userService.getAllUsers(ThreadLocalRandom.current().nextInt(0, 50), 20, "id", "asc", noFilter,
+                UserDTO.CountType.EXACT);
+    }
+
+    @Benchmark
+    public UserDTO.UserListResponse getAllUsersCachedCount() {
+        return userService.getAllUsers(ThreadLocalRandom.current().nextInt(0, 50), 20, "id", "asc", noFilter,
+                UserDTO.CountType.CACHED);
+    }
+
+    @Benchmark
+    public UserDTO.UserListResponse getAllUsersNoCount() {
+        return userService.getAllUsers(ThreadLocalRandom.current().nextInt(0, 50), 20, "id", "asc", noFilter,
+                UserDTO.CountType.NONE);
+    }
+}
@@ -0,0 +1,75 @@
+package com.looyt.usermanagement.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Minimal thread-safe Bloom filter over strings
+ * Sized from the expected number of insertions and the target false positive rate,
+ * never returns a false negative, entries cannot be removed
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long expected = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        long bits = Math.max(64, (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (ln2 * ln2)));
+
+        this.words = new AtomicLongArray(Math.toIntExact((bits + 63) >>> 6));
+        this.bitCount = (long) words.length() << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * ln2));
+    }
+
+    public void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, m) -> current | m);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    // FNV-1a over the UTF-8 bytes, finished with a 64-bit mixer for avalanche
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
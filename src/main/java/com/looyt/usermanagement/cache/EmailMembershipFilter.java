@@ -0,0 +1,163 @@
+package com.looyt.usermanagement.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory probabilistic set of registered emails
+ * A negative answer means the email was never registered, so the existence query can be skipped.
+ * Built from the users table on startup and on a fixed interval (deleted emails drop out on
+ * rebuild), and kept current by local writes and user events from other nodes.
+ * When disabled or not yet built every email is reported as possibly present.
+ */
+@Component
+@Slf4j
+public class EmailMembershipFilter {
+
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter absentCounter;
+    private final Counter maybePresentCounter;
+
+    // Adds hold the read lock, a rebuild takes the write lock to publish the filter it fills
+    private final ReadWriteLock buildingLock = new ReentrantReadWriteLock();
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+
+    public EmailMembershipFilter(
+            @Value("${user.email-filter.enabled:false}") boolean enabled,
+            @Value("${user.email-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${user.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.absentCounter = Counter.builder("user.email.filter.checks")
+                .description("Email existence checks answered by the membership filter")
+                .tag("result", "absent")
+                .register(meterRegistry);
+        this.maybePresentCounter = Counter.builder("user.email.filter.checks")
+                .description("Email existence checks answered by the membership filter")
+                .tag("result", "maybe-present")
+                .register(meterRegistry);
+    }
+
+    /**
+     * False only if the email is certainly not registered
+     */
+    public boolean mightContain(String email) {
+        BloomFilter current = filter;
+        if (!enabled || current == null) {
+            return true;
+        }
+
+        boolean maybe = current.mightContain(email);
+        (maybe ? maybePresentCounter : absentCounter).increment();
+        return maybe;
+    }
+
+    /**
+     * Add a registered email, inside a transaction only once it committed
+     * An add either reaches the filter a rebuild is filling, or completed before the rebuild
+     * started its scan, which then reads the committed row, so no email is lost on the swap.
+     */
+    public void add(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(email);
+            }
+        });
+    }
+
+    private void put(String email) {
+        buildingLock.readLock().lock();
+        try {
+            BloomFilter current = filter;
+            BloomFilter next = building;
+            if (current != null) {
+                current.put(email);
+            }
+            if (next != null) {
+                next.put(email);
+            }
+        } finally {
+            buildingLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${user.email-filter.rebuild-interval:PT6H}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        BloomFilter next = new BloomFilter(expectedInsertions, falsePositiveRate);
+        // Published before the scan starts: later adds go into next, earlier ones committed before the scan
+        buildingLock.writeLock().lock();
+        try {
+            building = next;
+        } finally {
+            buildingLock.writeLock().unlock();
+        }
+        try {
+            long[] loaded = new long[1];
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement statement = connection.prepareStatement("SELECT email FROM users");
+                        statement.setFetchSize(LOAD_FETCH_SIZE);
+                        return statement;
+                    },
+                    (RowCallbackHandler) rs -> {
+                        next.put(rs.getString(1));
+                        loaded[0]++;
+                    }));
+
+            filter = next;
+            log.info("Email filter built - Emails: {}, Bits: {}, Hashes: {}, Took: {} ms",
+                    loaded[0], next.bitCount(), next.hashCount(), (System.nanoTime() - started) / 1_000_000);
+            if (loaded[0] > expectedInsertions) {
+                log.warn("Email filter holds more emails ({}) than expected ({}), false positive rate is above {}",
+                        loaded[0], expectedInsertions, falsePositiveRate);
+            }
+        } catch (Exception e) {
+            log.error("Email filter rebuild failed, keeping the previous filter: {}", e.getMessage(), e);
+        } finally {
+            building = null;
+        }
+    }
+}
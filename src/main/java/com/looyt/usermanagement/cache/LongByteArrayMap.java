@@ -0,0 +1,116 @@
+package com.looyt.usermanagement.cache;
+
+/**
+ * Open-addressing hash map from positive long keys to byte arrays
+ * Keys are kept in a primitive long[] beside the values (linear probing, backward-shift
+ * removal), so an entry costs two array slots and its value instead of a boxed Long,
+ * a hash node and the value object. Not thread-safe.
+ */
+final class LongByteArrayMap {
+
+    private static final long FREE = 0; // Keys must be positive, 0 marks an empty slot
+    private static final double LOAD_FACTOR = 0.6;
+
+    private long[] keys;
+    private byte[][] values;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    LongByteArrayMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] get(long key) {
+        for (int slot = slot(key); keys[slot] != FREE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Store the value under key, returns the value it replaced or null
+     */
+    byte[] put(long key, byte[] value) {
+        if (key <= FREE) {
+            throw new IllegalArgumentException("Key must be positive: " + key);
+        }
+        int slot = slot(key);
+        for (; keys[slot] != FREE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                byte[] previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Remove key, returns its value or null if it was not present
+     */
+    byte[] remove(long key) {
+        for (int slot = slot(key); keys[slot] != FREE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                byte[] previous = values[slot];
+                closeGap(slot);
+                size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    // Move later entries of the probe chain back into the gap, no tombstones are left behind
+    private void closeGap(int gap) {
+        for (int slot = (gap + 1) & mask; keys[slot] != FREE; slot = (slot + 1) & mask) {
+            int home = slot(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = FREE;
+        values[gap] = null;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        byte[][] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new byte[capacity][];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+}
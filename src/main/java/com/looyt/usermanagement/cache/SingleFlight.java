@@ -0,0 +1,80 @@
+package com.looyt.usermanagement.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing: concurrent loads of the same key share the first caller's load
+ * The first caller runs the loader on its own thread, later callers wait for its result or
+ * exception. With a window the result is also handed to callers arriving up to window after
+ * it completed, with a zero window only to callers that overlapped the load.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final Duration window;
+    private final Counter loaded;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, Duration window, MeterRegistry meterRegistry) {
+        this.window = window;
+        this.loaded = Counter.builder("user.coalescing.requests")
+                .description("Coalesced read requests, by whether they ran the load or shared another's")
+                .tags("name", name, "result", "loaded")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("user.coalescing.requests")
+                .description("Coalesced read requests, by whether they ran the load or shared another's")
+                .tags("name", name, "result", "coalesced")
+                .register(meterRegistry);
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        loaded.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Failures are never shared beyond the callers that overlapped them
+            if (window.isZero() || flight.isCompletedExceptionally()) {
+                flights.remove(key, flight);
+            } else {
+                CompletableFuture.delayedExecutor(window.toNanos(), TimeUnit.NANOSECONDS)
+                        .execute(() -> flights.remove(key, flight));
+            }
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Rethrow what the loader threw, e.g. ResourceNotFoundException for every waiting caller
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.looyt.usermanagement.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.looyt.usermanagement.dto.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * In-process read-through cache for single user lookups
+ * Bounded by size and TTL, kept coherent across nodes by UserEventConsumer
+ * Each entry also keeps the user's JSON once it was served, so repeated reads are neither
+ * mapped nor serialized again. The bytes live and die with the entry they were made from.
+ */
+@Component
+@Slf4j
+public class UserCache {
+
+    private static final String CACHE_NAME = "users";
+
+    /**
+     * A user's response JSON and the strong ETag of that representation
+     */
+    public record SerializedUser(Long id, String etag, byte[] json) {
+    }
+
+    private record Entry(UserDTO.UserResponse user, SerializedUser serialized) {
+    }
+
+    private final boolean enabled;
+    private final Cache<Long, Entry> cache;
+    private final ObjectMapper objectMapper;
+
+    public UserCache(
+            @Value("${user.cache.enabled:true}") boolean enabled,
+            @Value("${user.cache.max-size:10000}") long maxSize,
+            @Value("${user.cache.ttl:PT10M}") Duration ttl,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("User cache initialized - Enabled: {}, MaxSize: {}, TTL: {}", enabled, maxSize, ttl);
+    }
+
+    public Optional<UserDTO.UserResponse> get(Long id) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(id)).map(Entry::user);
+    }
+
+    /**
+     * The cached JSON of the user, empty until serialize was called for the cached response
+     */
+    public Optional<SerializedUser> getSerialized(Long id) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(id)).map(Entry::serialized);
+    }
+
+    /**
+     * Serialize the user with the application ObjectMapper, the same bytes Spring MVC would write
+     * Kept only if the cache still holds this exact response, a concurrent update wins
+     */
+    public SerializedUser serialize(UserDTO.UserResponse user) {
+        SerializedUser serialized;
+        try {
+            serialized = new SerializedUser(user.getId(), etag(user), objectMapper.writeValueAsBytes(user));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize user " + user.getId(), e);
+        }
+
+        if (enabled && user.getId() != null) {
+            Entry current = cache.getIfPresent(user.getId());
+            if (current != null && current.user() == user && current.serialized() == null) {
+                cache.asMap().replace(user.getId(), current, new Entry(user, serialized));
+            }
+        }
+        return serialized;
+    }
+
+    public void put(UserDTO.UserResponse user) {
+        if (enabled && user.getId() != null) {
+            cache.put(user.getId(), new Entry(user, null));
+        }
+    }
+
+    public void evict(Long id) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    public void evict(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    // Every change bumps the version, so id and version identify the representation
+    private static String etag(UserDTO.UserResponse user) {
+        return "\"" + user.getId() + "-" + user.getVersion() + "\"";
+    }
+}
@@ -0,0 +1,71 @@
+package com.looyt.usermanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.looyt.usermanagement.dto.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Total counts of filtered user listings, keyed by filter
+ * Bounded by size and TTL, and dropped entirely on any user event since a single write
+ * can move a user in or out of any filter
+ */
+@Component
+@Slf4j
+public class UserCountCache {
+
+    private static final String CACHE_NAME = "user-counts";
+
+    private final Cache<UserDTO.UserFilter, Long> cache;
+    // Bumped by every eviction, a count started before it may miss the write behind it
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserCountCache(
+            @Value("${user.list.count-cache.max-size:1000}") long maxSize,
+            @Value("${user.list.count-cache.ttl:PT1M}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("User count cache initialized - MaxSize: {}, TTL: {}", maxSize, ttl);
+    }
+
+    /**
+     * Cached count for the filter, counted by the counter on a miss
+     * The count runs outside the cache (a compute would hold a map lock for the whole query)
+     * and is only kept if no eviction happened while it ran.
+     */
+    public long get(UserDTO.UserFilter filter, Function<UserDTO.UserFilter, Long> counter) {
+        Long cached = cache.getIfPresent(filter);
+        if (cached != null) {
+            return cached;
+        }
+
+        long started = generation.get();
+        long count = counter.apply(filter);
+        cache.put(filter, count);
+        // Checked after the put: an eviction either sees the entry or bumped the generation first
+        if (generation.get() != started) {
+            cache.invalidate(filter);
+        }
+        return count;
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,217 @@
+package com.looyt.usermanagement.cache;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.kafka.UserEventBinaryCodec;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process replica of all users, materialized from the compacted user-snapshots topic
+ * UserEventConsumer reads the topic from the beginning at startup and keeps applying it (replica mode).
+ * Users are held as UserEventBinaryCodec bytes under primitive long ids, about a hundred bytes
+ * per user, and decoded per read. Reads are only served once the topic was backfilled with
+ * every user (UserSnapshotBackfill) and while the replica is at most user.replica.max-staleness
+ * behind it, callers fall back to the database otherwise. Only single users are served,
+ * filtered listings stay on the database and its indexes.
+ */
+@Component
+@Slf4j
+public class UserReplica implements MeterBinder {
+
+    private final boolean enabled;
+    private final long maxStalenessMillis;
+    private final long createdAt = System.currentTimeMillis();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongByteArrayMap users = new LongByteArrayMap(1024);
+    private long encodedBytes;
+
+    // Per partition: the replica holds every snapshot written up to this time (epoch millis),
+    // guarded by positionLock (not a monitor, listeners may run on virtual threads)
+    private final Lock positionLock = new ReentrantLock();
+    private final Map<Integer, Long> partitionsAsOf = new HashMap<>();
+    private volatile long asOf = -1;
+    private volatile boolean backfilled;
+
+    public UserReplica(
+            @Value("${user.replica.enabled:false}") boolean enabled,
+            @Value("${user.replica.max-staleness:PT5S}") Duration maxStaleness
+    ) {
+        this.enabled = enabled;
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        log.info("User replica initialized - Enabled: {}, MaxStaleness: {}", enabled, maxStaleness);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        if (enabled) {
+            Gauge.builder("user.replica.staleness", this, replica -> replica.staleness() / 1000.0)
+                    .description("How far the user replica may be behind the snapshot topic (NaN until loaded)")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("user.replica.users", this, UserReplica::size)
+                    .description("Users held by the user replica")
+                    .register(meterRegistry);
+            Gauge.builder("user.replica.size", this, UserReplica::encodedBytes)
+                    .description("Encoded size of the users held by the user replica")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Whether reads may be served from the replica: backfilled, loaded and within max-staleness of the topic
+     */
+    public boolean isServing() {
+        return enabled && backfilled && asOf >= 0 && System.currentTimeMillis() - asOf <= maxStalenessMillis;
+    }
+
+    public boolean isBackfilled() {
+        return backfilled;
+    }
+
+    /**
+     * The snapshot topic now holds every user
+     * Positions recorded so far may predate the backfilled snapshots, so they are dropped and
+     * the replica serves once every partition was reported caught up again.
+     */
+    public void markBackfilled() {
+        positionLock.lock();
+        try {
+            if (backfilled) {
+                return;
+            }
+            partitionsAsOf.clear();
+            asOf = -1;
+            backfilled = true;
+        } finally {
+            positionLock.unlock();
+        }
+        log.info("User snapshot topic backfilled, replica serves once caught up again");
+    }
+
+    public Optional<UserDTO.UserResponse> get(long id) {
+        byte[] encoded;
+        lock.readLock().lock();
+        try {
+            encoded = users.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.ofNullable(encoded).map(UserReplica::decode);
+    }
+
+    /**
+     * Apply the latest snapshot per user id, a null snapshot (tombstone) removes the user
+     */
+    public void apply(Map<Long, UserEvent> snapshots) {
+        // Encoded before taking the lock, readers only wait for the map updates
+        Map<Long, byte[]> encoded = new HashMap<>(snapshots.size() * 2);
+        snapshots.forEach((id, snapshot) -> encoded.put(id, snapshot == null ? null : encode(snapshot)));
+
+        lock.writeLock().lock();
+        try {
+            encoded.forEach((id, user) -> {
+                byte[] previous = user == null ? users.remove(id) : users.put(id, user);
+                encodedBytes += (user == null ? 0 : user.length) - (previous == null ? 0 : previous.length);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Record how current the replica is, per assigned partition of the snapshot topic
+     * A value is the time up to which the partition was applied, -1 if not known (yet).
+     * The replica is loaded once every assigned partition was known at least once,
+     * its staleness is measured from the partition that is furthest behind.
+     */
+    public void updatePosition(Map<Integer, Long> assigned) {
+        boolean loaded;
+        positionLock.lock();
+        try {
+            assigned.forEach((partition, partitionAsOf) -> partitionsAsOf.merge(partition, partitionAsOf, Math::max));
+            long oldest = Long.MAX_VALUE;
+            for (Integer partition : assigned.keySet()) {
+                long partitionAsOf = partitionsAsOf.get(partition);
+                if (partitionAsOf < 0) {
+                    return;
+                }
+                oldest = Math.min(oldest, partitionAsOf);
+            }
+            if (oldest == Long.MAX_VALUE) {
+                return;
+            }
+            loaded = asOf < 0;
+            asOf = Math.max(asOf, oldest);
+        } finally {
+            positionLock.unlock();
+        }
+
+        if (loaded) {
+            log.info("User replica loaded - Users: {}, Size: {} bytes, Took: {} ms",
+                    size(), encodedBytes(), System.currentTimeMillis() - createdAt);
+        }
+    }
+
+    /**
+     * Milliseconds the replica may be behind the snapshot topic, NaN until loaded
+     */
+    public double staleness() {
+        long current = asOf;
+        return current < 0 ? Double.NaN : Math.max(0, System.currentTimeMillis() - current);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long encodedBytes() {
+        lock.readLock().lock();
+        try {
+            return encodedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Only the user's fields, the event metadata of a snapshot is not kept
+    private static byte[] encode(UserEvent snapshot) {
+        UserEvent user = new UserEvent();
+        user.setUserId(snapshot.getUserId());
+        user.setName(snapshot.getName());
+        user.setEmail(snapshot.getEmail());
+        user.setPhone(snapshot.getPhone());
+        user.setRole(snapshot.getRole());
+        user.setActive(snapshot.getActive());
+        user.setVersion(snapshot.getVersion());
+        user.setCreatedAt(snapshot.getCreatedAt());
+        user.setUpdatedAt(snapshot.getUpdatedAt());
+        return UserEventBinaryCodec.encode(user);
+    }
+
+    private static UserDTO.UserResponse decode(byte[] encoded) {
+        UserEvent user = UserEventBinaryCodec.decode(encoded);
+        return new UserDTO.UserResponse(user.getUserId(), user.getName(), user.getEmail(), user.getPhone(),
+                user.getRole(), user.getActive(), user.getCreatedAt(), user.getUpdatedAt(), user.getVersion());
+    }
+}
@@ -0,0 +1,21 @@
+package com.looyt.usermanagement.configuration;
+
+import com.looyt.usermanagement.repository.StatementCountingInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Database Metrics Configuration
+ * Registers the statement counter behind user.db.statements with Hibernate
+ * Pool (hikaricp.*) and Hibernate statistics (hibernate.*) meters are bound by Spring Boot
+ */
+@Configuration
+public class DatabaseMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingInspector());
+    }
+}
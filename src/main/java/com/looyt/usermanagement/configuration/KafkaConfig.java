@@ -1,14 +1,25 @@
 package com.looyt.usermanagement.configuration;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.time.Duration;
+import java.util.Properties;
 
 /**
  * Kafka Configuration
  * Creates topics automatically if they don't exist
+ * Type topics are only needed in DUAL publish mode (kafka.publish-mode)
+ * The snapshot topic is compacted: it keeps the latest record per user id
+ * Listener container factories for single-type, batch and replica listeners
  */
 @Configuration
 public class KafkaConfig {
@@ -25,6 +36,9 @@ public class KafkaConfig {
     @Value("${kafka.topics.user-deleted}")
     private String userDeletedTopic;
 
+    @Value("${kafka.topics.user-snapshots:user-snapshots}")
+    private String userSnapshotsTopic;
+
     @Bean
     public NewTopic userEventsTopic() {
         return TopicBuilder.name(userEventsTopic)
@@ -34,6 +48,7 @@ public class KafkaConfig {
     }
 
     @Bean
+    @ConditionalOnProperty(name = "kafka.publish-mode", havingValue = "DUAL", matchIfMissing = true)
     public NewTopic userCreatedTopic() {
         return TopicBuilder.name(userCreatedTopic)
                 .partitions(3)
@@ -42,6 +57,7 @@ public class KafkaConfig {
     }
 
     @Bean
+    @ConditionalOnProperty(name = "kafka.publish-mode", havingValue = "DUAL", matchIfMissing = true)
     public NewTopic userUpdatedTopic() {
         return TopicBuilder.name(userUpdatedTopic)
                 .partitions(3)
@@ -50,10 +66,78 @@ public class KafkaConfig {
     }
 
     @Bean
+    @ConditionalOnProperty(name = "kafka.publish-mode", havingValue = "DUAL", matchIfMissing = true)
     public NewTopic userDeletedTopic() {
         return TopicBuilder.name(userDeletedTopic)
                 .partitions(3)
                 .replicas(1)
                 .build();
     }
-}
\ No newline at end of file
+
+    @Bean
+    @ConditionalOnProperty(name = "kafka.snapshots.enabled", havingValue = "true", matchIfMissing = true)
+    public NewTopic userSnapshotsTopic() {
+        return TopicBuilder.name(userSnapshotsTopic)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+
+    /**
+     * Listener container factory for single-type listeners
+     * Drops records that EventTypeFilteringDeserializer skipped (null value)
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> typedEventListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory
+    ) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setRecordFilterStrategy(record -> record.value() == null);
+        return factory;
+    }
+
+    /**
+     * Listener container factory for batch listeners (List<ConsumerRecord> per poll)
+     * Concurrency comes from spring.kafka.listener.concurrency like the other factories
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${kafka.consumer.batch.max-records:500}") int maxRecords,
+            @Value("${kafka.consumer.batch.fetch-min-bytes:1}") int fetchMinBytes,
+            @Value("${kafka.consumer.batch.fetch-max-wait:PT0.5S}") Duration fetchMaxWait
+    ) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxRecords));
+        consumerProperties.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, String.valueOf(fetchMinBytes));
+        consumerProperties.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, String.valueOf(fetchMaxWait.toMillis()));
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+
+        return factory;
+    }
+
+    /**
+     * Listener container factory for the user replica (batch listener)
+     * Idle events let a replica that receives no snapshots confirm it is still caught up
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> snapshotListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${user.replica.idle-interval:PT1S}") Duration idleInterval
+    ) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setIdleEventInterval(idleInterval.toMillis());
+        return factory;
+    }
+}
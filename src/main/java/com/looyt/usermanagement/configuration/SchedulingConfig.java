@@ -0,0 +1,24 @@
+package com.looyt.usermanagement.configuration;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduling Configuration
+ * Enables background jobs such as the outbox relay
+ * The scheduler pool (spring.task.scheduling.pool.size) has a thread per job so they do not queue behind each other
+ * Jobs stay on platform threads in virtual-thread mode too: the relay is the only caller of
+ * KafkaProducer.send, whose metadata wait (a monitor, up to max.block.ms) would pin a carrier
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
@@ -1,7 +1,13 @@
 package com.looyt.usermanagement.controller;
 
+import com.looyt.usermanagement.cache.UserCache;
 import com.looyt.usermanagement.dto.UserDTO;
 import com.looyt.usermanagement.model.User;
+import com.looyt.usermanagement.service.UserExportService;
+import com.looyt.usermanagement.service.UserImportParser;
+import com.looyt.usermanagement.service.UserBatchGetService;
+import com.looyt.usermanagement.service.UserBulkDeleteService;
+import com.looyt.usermanagement.service.UserImportService;
 import com.looyt.usermanagement.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,9 +18,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -23,6 +39,10 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserBulkDeleteService userBulkDeleteService;
+    private final UserBatchGetService userBatchGetService;
+    private final UserExportService userExportService;
 
     @GetMapping("/health")
     @Operation(summary = "Health check", description = "Check if the service is running")
@@ -49,6 +69,78 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(
+            summary = "Bulk import users",
+            description = "Streams users from CSV (header: name,email,phone[,role]) or NDJSON, loads them in chunks " +
+                    "and publishes CREATED events in batches. Invalid or duplicate rows are reported, not fatal"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished",
+                    content = @Content(schema = @Schema(implementation = UserDTO.ImportResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed input")
+    })
+    public ResponseEntity<UserDTO.ImportResponse> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) {
+        UserImportParser.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? UserImportParser.Format.CSV
+                : UserImportParser.Format.NDJSON;
+
+        UserDTO.ImportResponse response = userImportService.importUsers(body, format);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/bulk-delete")
+    @Operation(
+            summary = "Bulk delete users",
+            description = "Deletes the given ids, or every user matching the filter, in set-based chunks " +
+                    "and publishes DELETED events in batches"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Delete finished",
+                    content = @Content(schema = @Schema(implementation = UserDTO.BulkDeleteResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Neither or both of ids and filter given")
+    })
+    public ResponseEntity<UserDTO.BulkDeleteResponse> bulkDeleteUsers(
+            @RequestBody @Parameter(description = "Ids, or a filter such as {\"active\": false, \"updatedTo\": \"2020-01-01T00:00:00\"}") UserDTO.BulkDeleteRequest request
+    ) {
+        UserDTO.BulkDeleteResponse response = userBulkDeleteService.deleteUsers(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/batch-get")
+    @Operation(
+            summary = "Get many users by ID",
+            description = "Resolves up to user.batch-get.max-ids ids in one request, keeping the request order. " +
+                    "Unknown ids are listed in missing instead of failing the call"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users retrieved",
+                    content = @Content(schema = @Schema(implementation = UserDTO.BatchGetResponse.class))),
+            @ApiResponse(responseCode = "400", description = "No ids or too many ids")
+    })
+    public ResponseEntity<UserDTO.BatchGetResponse> batchGetUsers(
+            @RequestBody @Parameter(description = "Ids such as {\"ids\": [42, 7, 1001]}") UserDTO.BatchGetRequest request
+    ) {
+        UserDTO.BatchGetResponse response = userBatchGetService.getUsers(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/email-availability")
+    @Operation(
+            summary = "Check email availability",
+            description = "Tells whether an email can still be registered. Advisory only, creation is decided by the unique constraint"
+    )
+    @ApiResponse(responseCode = "200", description = "Availability checked",
+            content = @Content(schema = @Schema(implementation = UserDTO.EmailAvailabilityResponse.class)))
+    public ResponseEntity<UserDTO.EmailAvailabilityResponse> checkEmailAvailability(
+            @RequestParam @Parameter(description = "Email to check") String email
+    ) {
+        return ResponseEntity.ok(new UserDTO.EmailAvailabilityResponse(email, userService.isEmailAvailable(email)));
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Get user by ID",
@@ -57,19 +149,31 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User found",
                     content = @Content(schema = @Schema(implementation = UserDTO.UserResponse.class))),
+            @ApiResponse(responseCode = "304", description = "User unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<UserDTO.UserResponse> getUserById(
-            @PathVariable @Parameter(description = "User ID") Long id
+    public ResponseEntity<byte[]> getUserById(
+            @PathVariable @Parameter(description = "User ID") Long id,
+            WebRequest request
     ) {
-        UserDTO.UserResponse response = userService.getUserById(id);
-        return ResponseEntity.ok(response);
+        // Pre-serialized JSON, a matching If-None-Match gets 304 without a body
+        UserCache.SerializedUser user = userService.getSerializedUserById(id);
+        if (request.checkNotModified(user.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(user.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(user.json());
     }
 
     @GetMapping
     @Operation(
             summary = "Get all users",
-            description = "Retrieves all users with pagination, sorting, and filtering options"
+            description = "Retrieves all users with pagination, sorting, and filtering options. " +
+                    "All given filters are combined. " +
+                    "Pass a cursor (empty for the first page) to use keyset pagination instead of page numbers"
     )
     @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
             content = @Content(schema = @Schema(implementation = UserDTO.UserListResponse.class)))
@@ -80,9 +184,79 @@ public class UserController {
             @RequestParam(defaultValue = "asc") @Parameter(description = "Sort direction (asc/desc)") String sortDir,
             @RequestParam(required = false) @Parameter(description = "Filter by role") User.UserRole role,
             @RequestParam(required = false) @Parameter(description = "Filter by active status") Boolean active,
-            @RequestParam(required = false) @Parameter(description = "Filter by name (partial match)") String nameFilter
+            @RequestParam(required = false) @Parameter(description = "Filter by name (partial match)") String nameFilter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Created at or after (ISO date-time)") LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Created before (ISO date-time)") LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Updated at or after (ISO date-time)") LocalDateTime updatedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Updated before (ISO date-time)") LocalDateTime updatedTo,
+            @RequestParam(required = false) @Parameter(description = "Keyset cursor from a previous page's nextCursor (empty for the first page)") String cursor,
+            @RequestParam(defaultValue = "exact") @Parameter(description = "How totalElements is computed in page mode (exact/cached/estimated/none)") String count
+    ) {
+        UserDTO.UserFilter filter = new UserDTO.UserFilter(
+                role, active, nameFilter, createdFrom, createdTo, updatedFrom, updatedTo);
+
+        UserDTO.UserListResponse response = cursor != null
+                ? userService.getUsersByCursor(cursor, size, sortBy, sortDir, filter)
+                : userService.getAllUsers(page, size, sortBy, sortDir, filter, UserDTO.CountType.of(count));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export users",
+            description = "Streams every user matching the filters as NDJSON or CSV, ordered by id. " +
+                    "Rows are read from a database cursor and written as they arrive, so any table size can be exported"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export stream"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "ndjson") @Parameter(description = "Output format (ndjson/csv)") String format,
+            @RequestParam(required = false) @Parameter(description = "Filter by role") User.UserRole role,
+            @RequestParam(required = false) @Parameter(description = "Filter by active status") Boolean active,
+            @RequestParam(required = false) @Parameter(description = "Filter by name (partial match)") String nameFilter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Created at or after (ISO date-time)") LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Created before (ISO date-time)") LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Updated at or after (ISO date-time)") LocalDateTime updatedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            @Parameter(description = "Updated before (ISO date-time)") LocalDateTime updatedTo
+    ) {
+        UserExportService.Format exportFormat = UserExportService.Format.of(format);
+        UserDTO.UserFilter filter = new UserDTO.UserFilter(
+                role, active, nameFilter, createdFrom, createdTo, updatedFrom, updatedTo);
+
+        StreamingResponseBody body = output -> userExportService.exportUsers(filter, exportFormat, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("users." + exportFormat.getExtension()).build().toString())
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search users",
+            description = "Substring search over name, email and phone, ordered by relevance"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = UserDTO.UserListResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Query shorter than 3 characters")
+    })
+    public ResponseEntity<UserDTO.UserListResponse> searchUsers(
+            @RequestParam @Parameter(description = "Search text (min 3 characters)") String q,
+            @RequestParam(defaultValue = "0") @Parameter(description = "Page number (0-indexed)") int page,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Page size") int size
     ) {
-        UserDTO.UserListResponse response = userService.getAllUsers(page, size, sortBy, sortDir, role, active, nameFilter);
+        UserDTO.UserListResponse response = userService.searchUsers(q, page, size);
         return ResponseEntity.ok(response);
     }
 
@@ -105,6 +279,27 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    @PatchMapping("/{id}")
+    @Operation(
+            summary = "Patch user",
+            description = "Changes only the given fields in one statement if the user is still at the given version, " +
+                    "and publishes an UPDATED event carrying the new version to Kafka"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User patched successfully",
+                    content = @Content(schema = @Schema(implementation = UserDTO.UserResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid or empty patch"),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "409", description = "Stale version or email already in use")
+    })
+    public ResponseEntity<UserDTO.UserResponse> patchUser(
+            @PathVariable @Parameter(description = "User ID") Long id,
+            @Valid @RequestBody @Parameter(description = "Fields to change and the version they apply to") UserDTO.PatchUserRequest request
+    ) {
+        UserDTO.UserResponse response = userService.patchUser(id, request);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(
             summary = "Delete user",
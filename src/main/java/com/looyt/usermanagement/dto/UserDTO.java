@@ -1,14 +1,18 @@
 package com.looyt.usermanagement.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.looyt.usermanagement.exception.InvalidRequestException;
 import com.looyt.usermanagement.model.User;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 public class UserDTO {
 
@@ -34,8 +38,11 @@ public class UserDTO {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class UpdateUserRequest {
+        // Written by a single statement as well, so blank values are rejected here instead of by the entity
+        @Pattern(regexp = "(?s).*\\S.*", message = "Name must not be blank")
         private String name;
 
+        @Pattern(regexp = "(?s).*\\S.*", message = "Email must not be blank")
         @Email(message = "Email should be valid")
         private String email;
 
@@ -47,6 +54,33 @@ public class UserDTO {
         private Boolean active;
     }
 
+    /**
+     * Partial update, null fields are left unchanged
+     * Applied only if the stored version still equals the given one
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PatchUserRequest {
+        // Omitted means unchanged, but a present value must not be blank (the statement bypasses entity validation)
+        @Pattern(regexp = "(?s).*\\S.*", message = "Name must not be blank")
+        private String name;
+
+        @Pattern(regexp = "(?s).*\\S.*", message = "Email must not be blank")
+        @Email(message = "Email should be valid")
+        private String email;
+
+        @Pattern(regexp = "^\\+?[1-9]\\d{1,14}$", message = "Phone number should be valid")
+        private String phone;
+
+        private User.UserRole role;
+
+        private Boolean active;
+
+        @NotNull(message = "Version is required")
+        private Long version;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -59,16 +93,121 @@ public class UserDTO {
         private Boolean active;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
+        private Long version;
     }
 
+    /**
+     * Listing filters, every non-null field is combined with AND
+     */
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    public static class UserFilter {
+        private User.UserRole role;
+        private Boolean active;
+        private String nameFilter;
+        private LocalDateTime createdFrom; // inclusive
+        private LocalDateTime createdTo; // exclusive
+        private LocalDateTime updatedFrom; // inclusive
+        private LocalDateTime updatedTo; // exclusive
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class UserListResponse {
         private java.util.List<UserResponse> users;
-        private long totalElements;
-        private int totalPages;
-        private int currentPage;
+        private Long totalElements; // null in cursor mode
+        private Integer totalPages; // null in cursor mode
+        private Integer currentPage; // null in cursor mode
         private int pageSize;
+        private boolean hasNext;
+        private String nextCursor; // only set in cursor mode
+        private CountType countType; // null in cursor mode
+    }
+
+    /**
+     * How the totalElements of a paged listing was obtained
+     * EXACT: COUNT(*), CACHED: COUNT(*) from up to user.list.count-cache.ttl ago,
+     * ESTIMATED: PostgreSQL planner statistics, NONE: not counted, only hasNext is set
+     */
+    public enum CountType {
+        EXACT,
+        CACHED,
+        ESTIMATED,
+        NONE;
+
+        public static CountType of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestException("Unsupported count type: " + value);
+            }
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportResponse {
+        private long totalRows;
+        private long imported;
+        private long rejected;
+        private java.util.List<ImportReject> rejects; // capped, see user.import.max-reported-rejects
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportReject {
+        private long row;
+        private String email;
+        private String reason;
+    }
+
+    /**
+     * Either explicit ids or a filter with at least one criterion, never both
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkDeleteRequest {
+        private java.util.List<Long> ids;
+        private UserFilter filter;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkDeleteResponse {
+        private long deleted;
+        private int chunks;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchGetRequest {
+        private java.util.List<Long> ids; // at most user.batch-get.max-ids
+    }
+
+    /**
+     * Found users in the order of the requested ids (first occurrence), unknown ids in missing
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchGetResponse {
+        private java.util.List<UserResponse> users;
+        private java.util.List<Long> missing;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EmailAvailabilityResponse {
+        private String email;
+        private boolean available;
     }
-}
\ No newline at end of file
+}
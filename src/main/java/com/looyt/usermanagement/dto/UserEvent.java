@@ -22,13 +22,17 @@ public class UserEvent {
     private String phone;
     private User.UserRole role;
     private Boolean active;
+    private Long version; // user version after the change
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
     private LocalDateTime timestamp;
     private String performedBy; // Who performed the action (for audit)
 
     public enum EventType {
         CREATED,
         UPDATED,
-        DELETED
+        DELETED,
+        SNAPSHOT // current state written by the snapshot backfill, only sent to the snapshot topic
     }
 
     public static UserEvent createEvent(Long userId, String eventType, UserDTO.UserResponse user, String performedBy) {
@@ -40,6 +44,9 @@ public class UserEvent {
                 user.getPhone(),
                 user.getRole(),
                 user.getActive(),
+                user.getVersion(),
+                user.getCreatedAt(),
+                user.getUpdatedAt(),
                 LocalDateTime.now(),
                 performedBy
         );
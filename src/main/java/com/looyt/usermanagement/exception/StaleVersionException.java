@@ -0,0 +1,7 @@
+package com.looyt.usermanagement.exception;
+
+public class StaleVersionException extends RuntimeException {
+    public StaleVersionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,170 @@
+package com.looyt.usermanagement.filter;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive Concurrency Limiter
+ * Gradient limit: while the recent request latency stays within TOLERANCE of the long-term
+ * baseline the limit grows by about its square root, as latency rises above it the limit
+ * shrinks in proportion, failed requests back it off directly.
+ * The limit is shared by a read and a write partition, each guaranteed its share of it.
+ * A partition above its share may only borrow while the total is under the limit,
+ * so a flood of reads cannot lock writes out and the other way round.
+ * State is guarded by a ReentrantLock rather than a monitor, every request takes it and
+ * a virtual thread waiting on a monitor would pin its carrier.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Partition {
+        READ,
+        WRITE
+    }
+
+    // Latency may grow this much over the baseline before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+    // Baseline averaged over this many sample windows, about a minute with the default window
+    private static final int LONG_WINDOWS = 600;
+    private static final long DEFAULT_WINDOW_NANOS = 100_000_000L;
+    private static final int DEFAULT_MIN_WINDOW_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double writeShare;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double limit;
+    private double longRtt;
+    private int inFlight;
+    private final int[] partitionInFlight = new int[Partition.values().length];
+
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double writeShare) {
+        this(initialLimit, minLimit, maxLimit, writeShare, DEFAULT_WINDOW_NANOS, DEFAULT_MIN_WINDOW_SAMPLES);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double writeShare,
+                               long windowNanos, int minWindowSamples) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (writeShare <= 0 || writeShare >= 1) {
+            throw new IllegalArgumentException("Write share must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.writeShare = writeShare;
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = minWindowSamples;
+        this.limit = initialLimit;
+    }
+
+    public boolean tryAcquire(Partition partition) {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit && partitionInFlight[partition.ordinal()] >= guaranteed(partition)) {
+                return false;
+            }
+            inFlight++;
+            partitionInFlight[partition.ordinal()]++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return a permit with the latency of the request it admitted
+     * Latencies are averaged per sample window, the limit moves once per window.
+     * Dropped requests (server errors, e.g. no database connection in time) back it off at once.
+     */
+    public void release(Partition partition, long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            releaseLocked(partition, rttNanos, dropped);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked(Partition partition, long rttNanos, boolean dropped) {
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+        inFlight--;
+        partitionInFlight[partition.ordinal()]--;
+
+        if (dropped) {
+            limit = Math.max(minLimit, limit * BACKOFF);
+            return;
+        }
+        windowRttSum += rttNanos;
+        windowSamples++;
+        long now = System.nanoTime();
+        if (windowSamples < minWindowSamples || now - windowStart < windowNanos) {
+            return;
+        }
+
+        double shortRtt = (double) windowRttSum / windowSamples;
+        int maxInFlight = windowMaxInFlight;
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+            return;
+        }
+        longRtt += (shortRtt - longRtt) / LONG_WINDOWS;
+        // Latency fell well below the baseline (e.g. after an incident): let the baseline follow quickly
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        // A limit that is far from used says nothing about capacity, don't grow it
+        if (maxInFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double next = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + next * SMOOTHING));
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit(Partition partition) {
+        lock.lock();
+        try {
+            return guaranteed(partition);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight(Partition partition) {
+        lock.lock();
+        try {
+            return partitionInFlight[partition.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int guaranteed(Partition partition) {
+        double share = partition == Partition.WRITE ? writeShare : 1 - writeShare;
+        return Math.max(1, (int) (limit * share));
+    }
+}
@@ -0,0 +1,209 @@
+package com.looyt.usermanagement.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.usermanagement.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sheds load in front of the user API before it queues on the database pool
+ * Requests over the adaptive limit are answered at once with 503 and Retry-After instead
+ * of waiting up to the Hikari connection timeout. GET requests and batch gets are reads,
+ * everything else a write. Health checks are not limited.
+ * Import, bulk delete and export run for seconds to minutes, so they take one of a few fixed bulk
+ * permits instead and never feed their latency into the adaptive limit. An export streams
+ * asynchronously and keeps its permit (and its database connection) until the response completes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH = "/api/v1/users";
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Semaphore bulkPermits;
+    private final int bulkLimit;
+    private final String retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    private final Meter.MeterProvider<Counter> rejected;
+
+    public ConcurrencyLimitFilter(
+            @Value("${user.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${user.concurrency-limit.initial:20}") int initialLimit,
+            @Value("${user.concurrency-limit.min:4}") int minLimit,
+            @Value("${user.concurrency-limit.max:200}") int maxLimit,
+            @Value("${user.concurrency-limit.write-share:0.3}") double writeShare,
+            @Value("${user.concurrency-limit.bulk:2}") int bulkLimit,
+            @Value("${user.concurrency-limit.retry-after:PT1S}") Duration retryAfter,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, writeShare);
+        this.bulkPermits = new Semaphore(bulkLimit);
+        this.bulkLimit = bulkLimit;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("user.http.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Adaptive limit on concurrent user API requests")
+                .tag("partition", "all")
+                .register(meterRegistry);
+        for (AdaptiveConcurrencyLimiter.Partition partition : AdaptiveConcurrencyLimiter.Partition.values()) {
+            String tag = partition.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("user.http.concurrency.limit", limiter, l -> l.getLimit(partition))
+                    .description("Adaptive limit on concurrent user API requests")
+                    .tag("partition", tag)
+                    .register(meterRegistry);
+            Gauge.builder("user.http.concurrency.in-flight", limiter, l -> l.getInFlight(partition))
+                    .description("User API requests currently admitted by the concurrency limit")
+                    .tag("partition", tag)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("user.http.concurrency.in-flight", bulkPermits, permits -> bulkLimit - permits.availablePermits())
+                .description("User API requests currently admitted by the concurrency limit")
+                .tag("partition", "bulk")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("user.http.concurrency.rejected")
+                .description("User API requests rejected with 503 by the concurrency limit")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled
+                || !path.startsWith(API_PATH)
+                || path.equals(API_PATH + "/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isBulk(request)) {
+            filterBulk(request, response, filterChain);
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter.Partition partition = isRead(request)
+                ? AdaptiveConcurrencyLimiter.Partition.READ
+                : AdaptiveConcurrencyLimiter.Partition.WRITE;
+
+        if (!limiter.tryAcquire(partition)) {
+            rejected.withTags("partition", partition.name().toLowerCase(Locale.ROOT)).increment();
+            log.debug("Rejected {} {} - concurrency limit {} reached", request.getMethod(), request.getRequestURI(),
+                    limiter.getLimit());
+            reject(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limiter.release(partition, System.nanoTime() - start, dropped);
+        }
+    }
+
+    private void filterBulk(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!bulkPermits.tryAcquire()) {
+            rejected.withTags("partition", "bulk").increment();
+            log.debug("Rejected {} {} - {} bulk requests already running", request.getMethod(), request.getRequestURI(),
+                    bulkLimit);
+            reject(request, response);
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new BulkPermitRelease());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                bulkPermits.release();
+            }
+        }
+    }
+
+    private static boolean isBulk(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if ("GET".equals(request.getMethod())) {
+            return uri.endsWith(API_PATH + "/export");
+        }
+        return "POST".equals(request.getMethod())
+                && (uri.endsWith(API_PATH + "/import") || uri.endsWith(API_PATH + "/bulk-delete"));
+    }
+
+    // Batch get is a POST only because its ids travel in the body
+    private static boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod())
+                || request.getRequestURI().endsWith(API_PATH + "/batch-get");
+    }
+
+    /**
+     * Returns the permit of a streaming response once the container completes it,
+     * onComplete also follows a timeout or an error
+     */
+    private class BulkPermitRelease implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            bulkPermits.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                "Too many concurrent requests, retry later",
+                request.getRequestURI()
+        ));
+    }
+}
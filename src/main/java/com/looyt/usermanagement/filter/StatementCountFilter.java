@@ -0,0 +1,47 @@
+package com.looyt.usermanagement.filter;
+
+import com.looyt.usermanagement.repository.StatementCountingInspector;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements Hibernate ran for each request
+ * Exposed as user.db.statements tagged by HTTP method and route pattern. Work handed to
+ * another thread (streaming exports) is not attributed to the request.
+ */
+@Component
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private final Meter.MeterProvider<DistributionSummary> statements;
+
+    public StatementCountFilter(MeterRegistry meterRegistry) {
+        this.statements = DistributionSummary.builder("user.db.statements")
+                .description("SQL statements issued through Hibernate per HTTP request")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementCountingInspector.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int count = StatementCountingInspector.end();
+            // The route pattern keeps the tag bounded, raw paths would carry ids
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            statements.withTags("method", request.getMethod(), "uri", route == null ? "UNKNOWN" : route.toString())
+                    .record(count);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.looyt.usermanagement.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumer lag per partition for batch listeners
+ * Exposed as user.events.consumer.lag (records behind the log end, as of the last poll)
+ */
+@Component
+@RequiredArgsConstructor
+public class ConsumerLagMonitor {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<GroupPartition, AtomicLong> lags = new ConcurrentHashMap<>();
+
+    private record GroupPartition(String groupId, TopicPartition partition) {
+    }
+
+    /**
+     * Record the lag of the partitions in the batch, must run on the consumer thread
+     */
+    public void update(String groupId, Consumer<?, ?> consumer, List<? extends ConsumerRecord<?, ?>> records) {
+        records.stream()
+                .map(record -> new TopicPartition(record.topic(), record.partition()))
+                .distinct()
+                .forEach(partition -> {
+                    OptionalLong lag = consumer.currentLag(partition);
+                    if (lag.isPresent()) {
+                        lags.computeIfAbsent(new GroupPartition(groupId, partition), this::register).set(lag.getAsLong());
+                    }
+                });
+    }
+
+    private AtomicLong register(GroupPartition key) {
+        TopicPartition partition = key.partition();
+        AtomicLong lag = new AtomicLong();
+        Gauge.builder("user.events.consumer.lag", lag, AtomicLong::get)
+                .description("Records between the last consumed offset and the end of the partition")
+                .tag("group", key.groupId())
+                .tag("topic", partition.topic())
+                .tag("partition", String.valueOf(partition.partition()))
+                .register(meterRegistry);
+        return lag;
+    }
+}
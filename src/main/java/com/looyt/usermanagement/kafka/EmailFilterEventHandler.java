@@ -0,0 +1,29 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.cache.EmailMembershipFilter;
+import com.looyt.usermanagement.dto.UserEvent;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Adds emails registered or changed on other nodes to the local email membership filter
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailFilterEventHandler implements UserEventBatchHandler {
+
+    private final EmailMembershipFilter emailFilter;
+
+    @Override
+    public void handleBatch(List<ConsumerRecord<String, UserEvent>> records) {
+        for (ConsumerRecord<String, UserEvent> record : records) {
+            UserEvent event = record.value();
+            if (event != null && !UserEvent.EventType.DELETED.name().equals(event.getEventType())) {
+                emailFilter.add(event.getEmail());
+            }
+        }
+    }
+}
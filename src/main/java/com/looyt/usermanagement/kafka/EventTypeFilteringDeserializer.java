@@ -0,0 +1,60 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * UserEvent deserializer for single-type listeners
+ *
+ * Reads the event type header first and returns null for other types without
+ * parsing the payload; typedEventListenerContainerFactory then drops those records.
+ * Configure the wanted type with the user.event.type.filter consumer property.
+ * Payloads are read by UserEventDeserializer, so JSON and binary records both work.
+ */
+public class EventTypeFilteringDeserializer implements Deserializer<UserEvent> {
+
+    public static final String TYPE_FILTER_CONFIG = "user.event.type.filter";
+
+    private final UserEventDeserializer delegate = new UserEventDeserializer();
+    private String typeFilter;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object filter = configs.get(TYPE_FILTER_CONFIG);
+        typeFilter = filter == null ? null : filter.toString();
+    }
+
+    @Override
+    public UserEvent deserialize(String topic, byte[] data) {
+        return filter(delegate.deserialize(topic, data));
+    }
+
+    @Override
+    public UserEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (typeFilter != null && headers != null) {
+            Header header = headers.lastHeader(UserEventTopics.EVENT_TYPE_HEADER);
+            if (header != null && !typeFilter.equals(new String(header.value(), StandardCharsets.UTF_8))) {
+                return null;
+            }
+        }
+        // Records without the header (older producers) are filtered after parsing
+        return filter(delegate.deserialize(topic, headers, data));
+    }
+
+    private UserEvent filter(UserEvent event) {
+        if (typeFilter == null || event == null || typeFilter.equals(event.getEventType())) {
+            return event;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,176 @@
+package com.looyt.usermanagement.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.model.OutboxEvent;
+import com.looyt.usermanagement.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox Relay
+ * Drains user_event_outbox to Kafka in batches with at-least-once delivery
+ *
+ * Only one instance relays at a time (lease row), rows are sent in id order
+ * and a failed send holds back every later event of the same user, so per-user
+ * ordering is preserved across retries.
+ *
+ * A batch is read in one short transaction, published and acknowledged against a single
+ * deadline with no transaction or pooled connection held, then deleted in another.
+ */
+@Component
+@ConditionalOnProperty(name = "user.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxRepository;
+    private final UserEventProducer eventProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxRepository,
+            UserEventProducer eventProducer,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${user.outbox.relay.batch-size:500}") int batchSize,
+            @Value("${user.outbox.relay.send-timeout:PT10S}") Duration sendTimeout,
+            @Value("${user.outbox.relay.lease:PT1M}") Duration lease
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.eventProducer = eventProducer;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.lease = lease;
+
+        Gauge.builder("user.outbox.backlog", backlog, AtomicLong::get)
+                .description("Number of user events waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("user.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+                .description("Age of the oldest user event waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("user.outbox.published")
+                .description("User events relayed to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("user.outbox.failed")
+                .description("User event sends that failed and will be retried")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${user.outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed >= batchSize);
+        } catch (Exception e) {
+            log.error("Outbox relay run failed: {}", e.getMessage(), e);
+        } finally {
+            try {
+                outboxRepository.releaseLease(owner);
+            } catch (Exception e) {
+                log.warn("Could not release outbox relay lease: {}", e.getMessage());
+            }
+            // Every instance, lease or not and also after a failed run, when the backlog grows
+            try {
+                updateBacklogMetrics();
+            } catch (Exception e) {
+                log.warn("Could not update outbox backlog metrics: {}", e.getMessage());
+            }
+        }
+    }
+
+    private int relayBatch() {
+        // The lease has to outlive the publish phase below, which ends at most a send timeout
+        // (plus one producer max.block.ms) after it is renewed here
+        List<OutboxEvent> batch = outboxRepository.tryAcquireLease(owner, lease.toSeconds()) == 1
+                ? outboxRepository.findNextBatch(batchSize)
+                : List.of();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        Map<OutboxEvent, CompletableFuture<Void>> sends = new LinkedHashMap<>();
+        Set<Long> blockedUsers = new HashSet<>();
+        List<Long> done = new ArrayList<>(batch.size());
+
+        for (OutboxEvent row : batch) {
+            if (System.nanoTime() - deadline >= 0) {
+                break; // out of time, the remaining rows stay in the outbox for the next batch in order
+            }
+            UserEvent event;
+            try {
+                event = objectMapper.readValue(row.getPayload(), UserEvent.class);
+            } catch (Exception e) {
+                log.error("Dropping unreadable outbox event - Id: {}, UserId: {}", row.getId(), row.getUserId(), e);
+                done.add(row.getId());
+                continue;
+            }
+            sends.put(row, eventProducer.publish(event));
+        }
+
+        for (Map.Entry<OutboxEvent, CompletableFuture<Void>> send : sends.entrySet()) {
+            OutboxEvent row = send.getKey();
+            if (blockedUsers.contains(row.getUserId())) {
+                continue; // an earlier event of this user failed, resend this one after it so the latest state lands last
+            }
+            try {
+                send.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                done.add(row.getId());
+            } catch (Exception e) {
+                blockedUsers.add(row.getUserId());
+                failedCounter.increment();
+                log.warn("Outbox event not acknowledged, will retry - Id: {}, UserId: {}", row.getId(), row.getUserId());
+            }
+        }
+
+        transactionTemplate.execute(status -> {
+            outboxRepository.deleteAllByIdInBatch(done);
+            return null;
+        });
+        publishedCounter.increment(done.size());
+
+        return done.size();
+    }
+
+    private void updateBacklogMetrics() {
+        backlog.set(outboxRepository.count());
+        LocalDateTime oldest = outboxRepository.findOldestCreatedAt();
+        lagMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.cache.UserCache;
+import com.looyt.usermanagement.dto.UserEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the local user cache coherent with writes made on any node
+ * Evicts every user updated or deleted in the batch once
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserCacheEventHandler implements UserEventBatchHandler {
+
+    private final UserCache userCache;
+
+    @Override
+    public void handleBatch(List<ConsumerRecord<String, UserEvent>> records) {
+        Set<Long> stale = new HashSet<>();
+        for (ConsumerRecord<String, UserEvent> record : records) {
+            UserEvent event = record.value();
+            // CREATED events cannot make an existing cache entry stale
+            if (event != null && !UserEvent.EventType.CREATED.name().equals(event.getEventType())) {
+                stale.add(event.getUserId());
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            log.debug("Evicting cached users - Count: {}, Records: {}", stale.size(), records.size());
+            userCache.evict(stale);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.cache.UserCountCache;
+import com.looyt.usermanagement.dto.UserEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Drops cached listing counts whenever users are created, updated or deleted on any node
+ * Once per batch, whatever its size
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserCountEventHandler implements UserEventBatchHandler {
+
+    private final UserCountCache countCache;
+
+    @Override
+    public void handleBatch(List<ConsumerRecord<String, UserEvent>> records) {
+        if (records.stream().anyMatch(record -> record.value() != null)) {
+            log.debug("Evicting cached user counts - Records: {}", records.size());
+            countCache.evictAll();
+        }
+    }
+}
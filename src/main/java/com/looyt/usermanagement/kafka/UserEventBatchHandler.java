@@ -0,0 +1,16 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.List;
+
+/**
+ * Handler for a batch of user events received in one poll
+ * Implementations are called by UserEventConsumer's batch listener, in partition order,
+ * and should apply the batch as a whole (dedupe by user, bulk writes) instead of per record
+ */
+public interface UserEventBatchHandler {
+
+    void handleBatch(List<ConsumerRecord<String, UserEvent>> records);
+}
@@ -0,0 +1,283 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.model.User;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of UserEvent
+ *
+ * Layout: MAGIC, schema version, then (tag, value) pairs up to the end of the record.
+ * A tag is field number << 3 | wire type. Integers are varints (zigzag for signed values),
+ * strings are length-prefixed UTF-8, enums are fixed codes rather than names or ordinals.
+ * Readers skip fields they do not know by wire type, so fields are added under new numbers
+ * without touching the version; absent fields decode as null. The schema version only
+ * changes for incompatible layouts, which older readers reject.
+ * Timestamps are epoch microseconds in UTC, the precision the database keeps.
+ */
+public final class UserEventBinaryCodec {
+
+    // Never the first byte of a JSON document, so both encodings can share a topic
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final int SCHEMA_VERSION = 1;
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_LENGTH = 2;
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    // Field numbers are permanent: never reuse or renumber one
+    private static final int USER_ID = 1;
+    private static final int EVENT_TYPE = 2;
+    private static final int NAME = 3;
+    private static final int EMAIL = 4;
+    private static final int PHONE = 5;
+    private static final int ROLE = 6;
+    private static final int ACTIVE = 7;
+    private static final int VERSION = 8;
+    private static final int TIMESTAMP = 9;
+    private static final int PERFORMED_BY = 10;
+    private static final int CREATED_AT = 11;
+    private static final int UPDATED_AT = 12;
+
+    private UserEventBinaryCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(UserEvent event) {
+        Writer out = new Writer();
+        out.raw(MAGIC);
+        out.raw((byte) SCHEMA_VERSION);
+
+        if (event.getUserId() != null) {
+            out.varintField(USER_ID, event.getUserId());
+        }
+        int eventType = eventTypeCode(event.getEventType());
+        if (eventType != 0) {
+            out.varintField(EVENT_TYPE, eventType);
+        }
+        out.stringField(NAME, event.getName());
+        out.stringField(EMAIL, event.getEmail());
+        out.stringField(PHONE, event.getPhone());
+        if (event.getRole() != null) {
+            out.varintField(ROLE, roleCode(event.getRole()));
+        }
+        if (event.getActive() != null) {
+            out.varintField(ACTIVE, event.getActive() ? 1 : 0);
+        }
+        if (event.getVersion() != null) {
+            out.varintField(VERSION, event.getVersion());
+        }
+        out.timeField(TIMESTAMP, event.getTimestamp());
+        out.stringField(PERFORMED_BY, event.getPerformedBy());
+        out.timeField(CREATED_AT, event.getCreatedAt());
+        out.timeField(UPDATED_AT, event.getUpdatedAt());
+
+        return out.toByteArray();
+    }
+
+    public static UserEvent decode(byte[] data) {
+        if (!isBinary(data) || data.length < 2) {
+            throw new SerializationException("Not a binary UserEvent");
+        }
+        int schemaVersion = data[1] & 0xFF;
+        if (schemaVersion > SCHEMA_VERSION) {
+            throw new SerializationException("Unsupported UserEvent schema version " + schemaVersion);
+        }
+
+        Reader in = new Reader(data, 2);
+        UserEvent event = new UserEvent();
+        try {
+            while (in.hasRemaining()) {
+                long tag = in.varint();
+                int field = (int) (tag >>> 3);
+                int wireType = (int) (tag & 0x7);
+                switch (field) {
+                    case USER_ID -> event.setUserId(in.varint());
+                    case EVENT_TYPE -> event.setEventType(eventTypeName(in.varint()));
+                    case NAME -> event.setName(in.string());
+                    case EMAIL -> event.setEmail(in.string());
+                    case PHONE -> event.setPhone(in.string());
+                    case ROLE -> event.setRole(role(in.varint()));
+                    case ACTIVE -> event.setActive(in.varint() != 0);
+                    case VERSION -> event.setVersion(in.varint());
+                    case TIMESTAMP -> event.setTimestamp(in.time());
+                    case PERFORMED_BY -> event.setPerformedBy(in.string());
+                    case CREATED_AT -> event.setCreatedAt(in.time());
+                    case UPDATED_AT -> event.setUpdatedAt(in.time());
+                    default -> in.skip(wireType);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated binary UserEvent", e);
+        }
+        return event;
+    }
+
+    private static int eventTypeCode(String type) {
+        if (type == null) {
+            return 0;
+        }
+        return switch (type) {
+            case "CREATED" -> 1;
+            case "UPDATED" -> 2;
+            case "DELETED" -> 3;
+            case "SNAPSHOT" -> 4;
+            default -> throw new SerializationException("Event type without a binary code: " + type);
+        };
+    }
+
+    // Codes added by newer writers decode as null rather than failing the record
+    private static String eventTypeName(long code) {
+        return switch ((int) code) {
+            case 1 -> UserEvent.EventType.CREATED.name();
+            case 2 -> UserEvent.EventType.UPDATED.name();
+            case 3 -> UserEvent.EventType.DELETED.name();
+            case 4 -> UserEvent.EventType.SNAPSHOT.name();
+            default -> null;
+        };
+    }
+
+    private static int roleCode(User.UserRole role) {
+        return switch (role) {
+            case USER -> 1;
+            case ADMIN -> 2;
+            case MODERATOR -> 3;
+        };
+    }
+
+    private static User.UserRole role(long code) {
+        return switch ((int) code) {
+            case 1 -> User.UserRole.USER;
+            case 2 -> User.UserRole.ADMIN;
+            case 3 -> User.UserRole.MODERATOR;
+            default -> null;
+        };
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer = new byte[128];
+        private int position;
+
+        void raw(byte b) {
+            ensure(1);
+            buffer[position++] = b;
+        }
+
+        void varintField(int field, long value) {
+            varint((long) field << 3 | WIRE_VARINT);
+            varint(value);
+        }
+
+        void timeField(int field, LocalDateTime value) {
+            if (value != null) {
+                varintField(field, zigzag(ChronoUnit.MICROS.between(EPOCH, value)));
+            }
+        }
+
+        void stringField(int field, String value) {
+            if (value == null) {
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint((long) field << 3 | WIRE_LENGTH);
+            varint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        boolean hasRemaining() {
+            return position < data.length;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in binary UserEvent");
+        }
+
+        LocalDateTime time() {
+            return EPOCH.plus(unzigzag(varint()), ChronoUnit.MICROS);
+        }
+
+        String string() {
+            int length = length();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        void skip(int wireType) {
+            switch (wireType) {
+                case WIRE_VARINT -> varint();
+                case WIRE_LENGTH -> {
+                    int length = length();
+                    position += length;
+                }
+                default -> throw new SerializationException("Unknown wire type " + wireType + " in binary UserEvent");
+            }
+        }
+
+        private int length() {
+            long length = varint();
+            if (length < 0 || length > data.length - position) {
+                throw new SerializationException("Field length exceeds binary UserEvent");
+            }
+            return (int) length;
+        }
+    }
+}
@@ -1,13 +1,28 @@
 package com.looyt.usermanagement.kafka;
 
+import com.looyt.usermanagement.cache.UserReplica;
 import com.looyt.usermanagement.dto.UserEvent;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.KafkaUtils;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
 /**
  * Kafka Consumer for User Events
  * Listens to user-related events from Kafka topics
@@ -20,8 +35,17 @@ import org.springframework.stereotype.Component;
  * - Sync with other services
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
-public class UserEventConsumer {
+public class UserEventConsumer implements ConsumerSeekAware {
+
+    private static final String REPLICA_LISTENER_ID = "user-replica";
+
+    private final List<UserEventBatchHandler> batchHandlers;
+    private final ConsumerLagMonitor lagMonitor;
+    private final UserEventTopics topics;
+    private final UserReplica replica;
+    private final UserSnapshotBackfill snapshotBackfill;
 
     /**
      * Listen to all user events
@@ -44,12 +68,93 @@ public class UserEventConsumer {
         processUserEvent(event);
     }
 
+    /**
+     * Apply user events in batches to local state (cache, ...) through the batch handlers
+     * Uses a per-instance group so every instance receives every event
+     */
+    @KafkaListener(
+            topics = "${kafka.topics.user-events}",
+            groupId = "${spring.kafka.consumer.group-id}-cache-${user.cache.instance-id}",
+            containerFactory = "batchListenerContainerFactory",
+            properties = "auto.offset.reset=latest"
+    )
+    public void consumeUserEventBatch(
+            List<ConsumerRecord<String, UserEvent>> records,
+            Consumer<?, ?> consumer
+    ) {
+        log.debug("Received user event batch - Records: {}", records.size());
+
+        for (UserEventBatchHandler handler : batchHandlers) {
+            handler.handleBatch(records);
+        }
+        lagMonitor.update(KafkaUtils.getConsumerGroupId(), consumer, records);
+    }
+
+    /**
+     * Materialize the user replica from the compacted snapshot topic (replica mode only)
+     * One consumer owns every partition and reads it from the beginning on assignment, see
+     * onPartitionsAssigned, so the replica is rebuilt at startup and then kept current
+     */
+    @KafkaListener(
+            id = REPLICA_LISTENER_ID,
+            idIsGroup = false,
+            topics = "${kafka.topics.user-snapshots:user-snapshots}",
+            groupId = "${spring.kafka.consumer.group-id}-replica-${user.cache.instance-id}",
+            containerFactory = "snapshotListenerContainerFactory",
+            concurrency = "1",
+            autoStartup = "${user.replica.enabled:false}"
+    )
+    public void consumeUserSnapshots(
+            List<ConsumerRecord<String, UserEvent>> records,
+            Consumer<?, ?> consumer
+    ) {
+        log.debug("Received user snapshot batch - Records: {}", records.size());
+
+        // Latest snapshot per user in the batch, a null value is a tombstone
+        Map<Long, UserEvent> latest = new HashMap<>();
+        for (ConsumerRecord<String, UserEvent> record : records) {
+            if (record.key() != null) {
+                latest.put(Long.valueOf(record.key()), record.value());
+            }
+        }
+        replica.apply(latest);
+        updateReplicaPosition(consumer, records);
+        lagMonitor.update(KafkaUtils.getConsumerGroupId(), consumer, records);
+    }
+
+    /**
+     * No snapshots for a while: confirm the replica is still caught up
+     */
+    @EventListener(condition = "event.listenerId.startsWith('" + REPLICA_LISTENER_ID + "')")
+    public void onReplicaIdle(ListenerContainerIdleEvent event) {
+        updateReplicaPosition(event.getConsumer(), List.of());
+    }
+
+    /**
+     * The replica is rebuilt from scratch on every start, ignore committed snapshot offsets
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        List<TopicPartition> snapshots = assignments.keySet().stream()
+                .filter(partition -> partition.topic().equals(topics.getUserSnapshotsTopic()))
+                .toList();
+        if (!snapshots.isEmpty()) {
+            log.info("Reading user snapshots from the beginning - Partitions: {}", snapshots);
+            callback.seekToBeginning(snapshots);
+        }
+    }
+
     /**
      * Listen to user created events
      */
     @KafkaListener(
-            topics = "${kafka.topics.user-created}",
-            groupId = "${spring.kafka.consumer.group-id}-created"
+            topics = "#{@userEventTopics.listenerTopic('CREATED')}",
+            groupId = "${spring.kafka.consumer.group-id}-created",
+            containerFactory = "typedEventListenerContainerFactory",
+            properties = {
+                    "value.deserializer=com.looyt.usermanagement.kafka.EventTypeFilteringDeserializer",
+                    EventTypeFilteringDeserializer.TYPE_FILTER_CONFIG + "=CREATED"
+            }
     )
     public void consumeUserCreatedEvent(@Payload UserEvent event) {
         log.info("✨ User Created - UserId: {}, Name: {}, Email: {}",
@@ -66,8 +171,13 @@ public class UserEventConsumer {
      * Listen to user updated events
      */
     @KafkaListener(
-            topics = "${kafka.topics.user-updated}",
-            groupId = "${spring.kafka.consumer.group-id}-updated"
+            topics = "#{@userEventTopics.listenerTopic('UPDATED')}",
+            groupId = "${spring.kafka.consumer.group-id}-updated",
+            containerFactory = "typedEventListenerContainerFactory",
+            properties = {
+                    "value.deserializer=com.looyt.usermanagement.kafka.EventTypeFilteringDeserializer",
+                    EventTypeFilteringDeserializer.TYPE_FILTER_CONFIG + "=UPDATED"
+            }
     )
     public void consumeUserUpdatedEvent(@Payload UserEvent event) {
         log.info("🔄 User Updated - UserId: {}, Name: {}, Email: {}",
@@ -84,8 +194,13 @@ public class UserEventConsumer {
      * Listen to user deleted events
      */
     @KafkaListener(
-            topics = "${kafka.topics.user-deleted}",
-            groupId = "${spring.kafka.consumer.group-id}-deleted"
+            topics = "#{@userEventTopics.listenerTopic('DELETED')}",
+            groupId = "${spring.kafka.consumer.group-id}-deleted",
+            containerFactory = "typedEventListenerContainerFactory",
+            properties = {
+                    "value.deserializer=com.looyt.usermanagement.kafka.EventTypeFilteringDeserializer",
+                    EventTypeFilteringDeserializer.TYPE_FILTER_CONFIG + "=DELETED"
+            }
     )
     public void consumeUserDeletedEvent(@Payload UserEvent event) {
         log.info("🗑️ User Deleted - UserId: {}, Email: {}",
@@ -131,4 +246,40 @@ public class UserEventConsumer {
         // Business logic for user deletion
         log.debug("Processing user deleted event: {}", event);
     }
-}
\ No newline at end of file
+
+    /**
+     * Report per assigned partition up to when the replica is current: now if it consumed up to
+     * the end of the partition (as of the last fetch), otherwise the time of its last applied record
+     * Right after the backfill completed, end offsets are asked from the broker instead: the last
+     * fetch may predate the backfilled records.
+     */
+    private void updateReplicaPosition(Consumer<?, ?> consumer, List<? extends ConsumerRecord<?, ?>> records) {
+        boolean justBackfilled = !replica.isBackfilled() && snapshotBackfill.isComplete();
+        if (justBackfilled) {
+            replica.markBackfilled();
+        }
+        long now = System.currentTimeMillis();
+        Map<Integer, Long> lastApplied = new HashMap<>();
+        for (ConsumerRecord<?, ?> record : records) {
+            lastApplied.merge(record.partition(), record.timestamp(), Math::max);
+        }
+
+        Map<Integer, Long> asOf = new HashMap<>();
+        for (TopicPartition partition : consumer.assignment()) {
+            asOf.put(partition.partition(), caughtUp(consumer, partition, justBackfilled)
+                    ? now
+                    : lastApplied.getOrDefault(partition.partition(), -1L));
+        }
+        replica.updatePosition(asOf);
+    }
+
+    private static boolean caughtUp(Consumer<?, ?> consumer, TopicPartition partition, boolean askBroker) {
+        OptionalLong lag = askBroker ? OptionalLong.empty() : consumer.currentLag(partition);
+        if (lag.isPresent()) {
+            return lag.getAsLong() == 0;
+        }
+        // Not known before the first fetch of the partition (or not trusted), ask the broker
+        Long end = consumer.endOffsets(Set.of(partition)).get(partition);
+        return end != null && consumer.position(partition) >= end;
+    }
+}
@@ -0,0 +1,39 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * UserEvent deserializer for both wire formats
+ * Binary records are recognized by their leading magic byte, anything else is read as JSON,
+ * so a topic can switch formats without draining it first
+ */
+public class UserEventDeserializer implements Deserializer<UserEvent> {
+
+    private final JsonDeserializer<UserEvent> json = new JsonDeserializer<>(UserEvent.class, false);
+
+    @Override
+    public UserEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return UserEventBinaryCodec.isBinary(data) ? UserEventBinaryCodec.decode(data) : json.deserialize(topic, data);
+    }
+
+    @Override
+    public UserEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return UserEventBinaryCodec.isBinary(data)
+                ? UserEventBinaryCodec.decode(data)
+                : json.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
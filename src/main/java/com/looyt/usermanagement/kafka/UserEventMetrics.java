@@ -0,0 +1,148 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer meters for the user event pipeline, all named user.events.*
+ *
+ * Producer: send-to-ack latency by outcome, event-creation-to-ack latency and in-flight sends.
+ * Consumer: processing time per record or batch, and end-to-end latency from
+ * UserEvent.timestamp to consumption. End-to-end values assume producer and consumer clocks
+ * share a time zone (timestamps are LocalDateTime); negative skew is recorded as zero.
+ * Consumer meters are tagged with the logical listener (cache, replica, created, ...) instead of
+ * the consumer group, whose per-instance suffix would add a time series per instance and restart.
+ */
+@Component
+public class UserEventMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> sendTimer;
+    private final Meter.MeterProvider<Timer> producerEndToEndTimer;
+    private final Meter.MeterProvider<Timer> processTimer;
+    private final Meter.MeterProvider<Timer> batchProcessTimer;
+    private final Meter.MeterProvider<DistributionSummary> batchSize;
+    private final Meter.MeterProvider<Timer> consumerEndToEndTimer;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, String> listeners = new ConcurrentHashMap<>();
+    private final String baseGroupId;
+    private final String instanceSuffix;
+
+    public UserEventMetrics(
+            MeterRegistry meterRegistry,
+            @Value("${spring.kafka.consumer.group-id:user-management-group}") String baseGroupId,
+            @Value("${user.cache.instance-id:}") String instanceId
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.baseGroupId = baseGroupId;
+        this.instanceSuffix = instanceId.isEmpty() ? null : "-" + instanceId;
+        this.sendTimer = Timer.builder("user.events.producer.send")
+                .description("Time from send to broker acknowledgement or failure")
+                .withRegistry(meterRegistry);
+        this.producerEndToEndTimer = Timer.builder("user.events.producer.end-to-end")
+                .description("Time from event creation to broker acknowledgement")
+                .withRegistry(meterRegistry);
+        this.processTimer = Timer.builder("user.events.consumer.process")
+                .description("Time a record listener spent on one event")
+                .withRegistry(meterRegistry);
+        this.batchProcessTimer = Timer.builder("user.events.consumer.batch.process")
+                .description("Time a batch listener spent on one poll")
+                .withRegistry(meterRegistry);
+        this.batchSize = DistributionSummary.builder("user.events.consumer.batch.size")
+                .description("Records per batch delivered to a batch listener")
+                .withRegistry(meterRegistry);
+        this.consumerEndToEndTimer = Timer.builder("user.events.consumer.end-to-end")
+                .description("Time from event creation to consumption")
+                .withRegistry(meterRegistry);
+    }
+
+    /**
+     * Call right before handing a record to the producer, returns the start time for sendCompleted
+     */
+    public long sendStarted(String topic) {
+        inFlight.computeIfAbsent(topic, this::registerInFlight).incrementAndGet();
+        return System.nanoTime();
+    }
+
+    public void sendCompleted(String topic, UserEvent event, long startNanos, Throwable failure) {
+        inFlight.get(topic).decrementAndGet();
+        String type = typeOf(event);
+
+        sendTimer.withTags("topic", topic, "type", type, "outcome", failure == null ? "success" : "failure")
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (failure == null && event.getTimestamp() != null) {
+            producerEndToEndTimer.withTags("topic", topic, "type", type).record(sinceCreation(event));
+        }
+    }
+
+    public void recordProcessed(String group, String topic, UserEvent event, long startNanos) {
+        String type = typeOf(event);
+        processTimer.withTags("listener", listenerOf(group), "topic", topic, "type", type)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        recordEndToEnd(group, topic, event);
+    }
+
+    public void batchProcessed(String group, String topic, int records, long startNanos) {
+        String listener = listenerOf(group);
+        batchProcessTimer.withTags("listener", listener, "topic", topic)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        batchSize.withTags("listener", listener, "topic", topic).record(records);
+    }
+
+    public void recordEndToEnd(String group, String topic, UserEvent event) {
+        if (event.getTimestamp() != null) {
+            consumerEndToEndTimer.withTags("listener", listenerOf(group), "topic", topic, "type", typeOf(event))
+                    .record(sinceCreation(event));
+        }
+    }
+
+    private AtomicInteger registerInFlight(String topic) {
+        AtomicInteger count = new AtomicInteger();
+        Gauge.builder("user.events.producer.in-flight", count, AtomicInteger::get)
+                .description("Sends waiting for a broker acknowledgement")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        return count;
+    }
+
+    /**
+     * Consumer group to listener name: the base group is the "events" listener, derived groups
+     * (base-cache-instance, base-created, ...) keep their middle part
+     */
+    private String listenerOf(String group) {
+        return group == null ? "unknown" : listeners.computeIfAbsent(group, this::toListener);
+    }
+
+    private String toListener(String group) {
+        String name = group;
+        if (instanceSuffix != null && name.endsWith(instanceSuffix)) {
+            name = name.substring(0, name.length() - instanceSuffix.length());
+        }
+        if (name.equals(baseGroupId)) {
+            return "events";
+        }
+        return name.startsWith(baseGroupId + "-") ? name.substring(baseGroupId.length() + 1) : name;
+    }
+
+    private static Duration sinceCreation(UserEvent event) {
+        Duration elapsed = Duration.between(event.getTimestamp(), LocalDateTime.now());
+        return elapsed.isNegative() ? Duration.ZERO : elapsed;
+    }
+
+    private static String typeOf(UserEvent event) {
+        return event.getEventType() == null ? "unknown" : event.getEventType();
+    }
+}
@@ -0,0 +1,80 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.kafka.support.KafkaUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Times every user event listener through UserEventMetrics
+ * Spring Boot applies both interceptors to every container factory built by its configurer.
+ * Interceptor callbacks run on the consumer thread, so the start time is kept per thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEventMetricsInterceptor implements RecordInterceptor<Object, Object>, BatchInterceptor<Object, Object> {
+
+    private final UserEventMetrics metrics;
+    private final ThreadLocal<Long> startNanos = new ThreadLocal<>();
+
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        startNanos.set(System.nanoTime());
+        return record;
+    }
+
+    @Override
+    public void afterRecord(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        Long start = startNanos.get();
+        startNanos.remove();
+        // Records skipped by EventTypeFilteringDeserializer have no value and are not counted
+        if (start != null && record.value() instanceof UserEvent event) {
+            metrics.recordProcessed(KafkaUtils.getConsumerGroupId(), record.topic(), event, start);
+        }
+    }
+
+    @Override
+    public ConsumerRecords<Object, Object> intercept(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        startNanos.set(System.nanoTime());
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        batchDone(records);
+    }
+
+    @Override
+    public void failure(ConsumerRecords<Object, Object> records, Exception exception, Consumer<Object, Object> consumer) {
+        batchDone(records);
+    }
+
+    private void batchDone(ConsumerRecords<Object, Object> records) {
+        Long start = startNanos.get();
+        startNanos.remove();
+        if (start == null || records.isEmpty()) {
+            return;
+        }
+
+        String group = KafkaUtils.getConsumerGroupId();
+        Set<TopicPartition> partitions = records.partitions();
+        String topic = partitions.stream().map(TopicPartition::topic).distinct().count() == 1
+                ? partitions.iterator().next().topic()
+                : "multiple";
+        metrics.batchProcessed(group, topic, records.count(), start);
+
+        for (ConsumerRecord<Object, Object> record : records) {
+            if (record.value() instanceof UserEvent event) {
+                metrics.recordEndToEnd(group, record.topic(), event);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.looyt.usermanagement.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.usermanagement.dto.UserEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transactional outbox for user events
+ * Must be called inside the transaction that changes the users table,
+ * delivery to Kafka is done asynchronously by OutboxRelay
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEventOutbox {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO user_event_outbox (user_id, event_type, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void append(UserEvent event) {
+        appendAll(List.of(event));
+    }
+
+    public void appendAll(List<UserEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.getUserId());
+            ps.setString(2, event.getEventType());
+            ps.setString(3, toJson(event));
+            ps.setTimestamp(4, now);
+        });
+    }
+
+    private String toJson(UserEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize user event for user ID: " + event.getUserId(), e);
+        }
+    }
+}
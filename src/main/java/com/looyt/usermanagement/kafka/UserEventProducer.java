@@ -1,73 +1,124 @@
 package com.looyt.usermanagement.kafka;
 
 import com.looyt.usermanagement.dto.UserEvent;
-import lombok.RequiredArgsConstructor;
+import com.looyt.usermanagement.monitoring.UserEventSendEvent;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Kafka Producer for User Events
  * Publishes user-related events to Kafka topics
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class UserEventProducer {
 
     private final KafkaTemplate<String, UserEvent> kafkaTemplate;
+    private final UserEventTopics topics;
+    private final UserEventMetrics metrics;
+    private final ExecutorService virtualCallbacks;
+    private final Executor callbackExecutor;
 
-    @Value("${kafka.topics.user-events}")
-    private String userEventsTopic;
-
-    @Value("${kafka.topics.user-created}")
-    private String userCreatedTopic;
-
-    @Value("${kafka.topics.user-updated}")
-    private String userUpdatedTopic;
-
-    @Value("${kafka.topics.user-deleted}")
-    private String userDeletedTopic;
-
-    /**
-     * Publish user created event
-     */
-    public void publishUserCreatedEvent(UserEvent event) {
-        publishEvent(userCreatedTopic, event);
-        publishEvent(userEventsTopic, event); // Also publish to general events topic
+    public UserEventProducer(KafkaTemplate<String, UserEvent> kafkaTemplate, UserEventTopics topics,
+                             UserEventMetrics metrics, Environment environment) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topics = topics;
+        this.metrics = metrics;
+        // In virtual-thread mode send callbacks run off the producer I/O thread,
+        // otherwise they stay on it as before
+        this.virtualCallbacks = Threading.VIRTUAL.isActive(environment)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : null;
+        this.callbackExecutor = virtualCallbacks != null ? virtualCallbacks : Runnable::run;
     }
 
     /**
-     * Publish user updated event
+     * Let submitted callbacks finish before the context (and logging) is torn down
      */
-    public void publishUserUpdatedEvent(UserEvent event) {
-        publishEvent(userUpdatedTopic, event);
-        publishEvent(userEventsTopic, event);
+    @PreDestroy
+    public void close() {
+        if (virtualCallbacks != null) {
+            virtualCallbacks.close();
+        }
     }
 
     /**
-     * Publish user deleted event
+     * Publish an event according to the configured publish mode, and the user's snapshot if enabled
+     * A SNAPSHOT event (backfill) only goes to the snapshot topic. The returned future completes once every send was acknowledged
      */
-    public void publishUserDeletedEvent(UserEvent event) {
-        publishEvent(userDeletedTopic, event);
-        publishEvent(userEventsTopic, event);
+    public CompletableFuture<Void> publish(UserEvent event) {
+        if (UserEvent.EventType.SNAPSHOT.name().equals(event.getEventType())) {
+            // Backfilled state rather than a change, nothing for event listeners
+            return topics.isSnapshotsEnabled()
+                    ? publishEvent(topics.getUserSnapshotsTopic(), event, event).thenApply(result -> null)
+                    : CompletableFuture.completedFuture(null);
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(3);
+        if (topics.isSinglePublish()) {
+            // Written once, type listeners route on the event type header
+            sends.add(publishEvent(topics.getUserEventsTopic(), event, event));
+        } else {
+            sends.add(publishEvent(topics.typeTopic(UserEvent.EventType.valueOf(event.getEventType())), event, event));
+            sends.add(publishEvent(topics.getUserEventsTopic(), event, event)); // Also publish to general events topic
+        }
+
+        if (topics.isSnapshotsEnabled()) {
+            // Compaction keeps the latest state per user, a delete leaves a tombstone (null value)
+            boolean deleted = UserEvent.EventType.DELETED.name().equals(event.getEventType());
+            sends.add(publishEvent(topics.getUserSnapshotsTopic(), event, deleted ? null : event));
+        }
+
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new));
     }
 
     /**
      * Generic method to publish events to Kafka
+     * The record carries value, which is event itself or null for a tombstone
      */
-    private void publishEvent(String topic, UserEvent event) {
+    private CompletableFuture<SendResult<String, UserEvent>> publishEvent(String topic, UserEvent event, UserEvent value) {
         try {
             String key = String.valueOf(event.getUserId());
 
-            CompletableFuture<SendResult<String, UserEvent>> future =
-                    kafkaTemplate.send(topic, key, event);
+            ProducerRecord<String, UserEvent> record = new ProducerRecord<>(topic, key, value);
+            record.headers().add(UserEventTopics.EVENT_TYPE_HEADER, event.getEventType().getBytes(StandardCharsets.UTF_8));
 
+            long sendStart = metrics.sendStarted(topic);
+            UserEventSendEvent jfrEvent = UserEventSendEvent.start();
+            CompletableFuture<SendResult<String, UserEvent>> future;
+            try {
+                future = kafkaTemplate.send(record);
+            } catch (RuntimeException e) {
+                metrics.sendCompleted(topic, event, sendStart, e);
+                jfrEvent.commit(topic, event.getEventType(), event.getUserId(), -1, -1, false);
+                throw e;
+            }
+            // Recorded where the send completes, without the hop to the logging callback executor
             future.whenComplete((result, ex) -> {
+                metrics.sendCompleted(topic, event, sendStart, ex);
+                if (ex == null) {
+                    jfrEvent.commit(topic, event.getEventType(), event.getUserId(),
+                            result.getRecordMetadata().partition(), result.getRecordMetadata().offset(), true);
+                } else {
+                    jfrEvent.commit(topic, event.getEventType(), event.getUserId(), -1, -1, false);
+                }
+            });
+
+            future.whenCompleteAsync((result, ex) -> {
                 if (ex == null) {
                     log.info("Published event to Kafka - Topic: {}, Key: {}, Event: {}, Partition: {}, Offset: {}",
                             topic,
@@ -82,10 +133,13 @@ public class UserEventProducer {
                             event.getEventType(),
                             ex.getMessage());
                 }
-            });
+            }, callbackExecutor);
+
+            return future;
 
         } catch (Exception e) {
             log.error("Error publishing event to Kafka - Topic: {}, Error: {}", topic, e.getMessage(), e);
+            return CompletableFuture.failedFuture(e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * UserEvent serializer with a per-topic wire format
+ *
+ * Topics listed in the user.event.binary-topics producer property ("*" for all) get
+ * UserEventBinaryCodec, every other topic keeps JSON. UserEventDeserializer reads both,
+ * so consumers of this service need no matching setting.
+ */
+public class UserEventSerializer implements Serializer<UserEvent> {
+
+    public static final String BINARY_TOPICS_CONFIG = "user.event.binary-topics";
+
+    private final JsonSerializer<UserEvent> json = new JsonSerializer<>();
+    private Set<String> binaryTopics = Set.of();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+
+        Object topics = configs.get(BINARY_TOPICS_CONFIG);
+        if (topics != null) {
+            binaryTopics = Arrays.stream(topics.toString().split(","))
+                    .map(String::trim)
+                    .filter(topic -> !topic.isEmpty())
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, UserEvent data) {
+        if (data == null) {
+            return null;
+        }
+        return isBinary(topic) ? UserEventBinaryCodec.encode(data) : json.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, UserEvent data) {
+        if (data == null) {
+            return null;
+        }
+        return isBinary(topic) ? UserEventBinaryCodec.encode(data) : json.serialize(topic, headers, data);
+    }
+
+    private boolean isBinary(String topic) {
+        return binaryTopics.contains(topic) || binaryTopics.contains("*");
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
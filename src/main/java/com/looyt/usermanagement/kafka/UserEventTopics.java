@@ -0,0 +1,73 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * User event topic routing
+ *
+ * DUAL mode publishes every event to its type topic and to user-events.
+ * SINGLE mode publishes once to user-events and type listeners select their
+ * events through the event type record header.
+ * Independently of the mode the latest state of every user can also go to the compacted
+ * user-snapshots topic (kafka.snapshots.enabled), the source of replica mode.
+ */
+@Component("userEventTopics")
+@Getter
+public class UserEventTopics {
+
+    public static final String EVENT_TYPE_HEADER = "eventType";
+
+    public enum PublishMode {
+        DUAL,
+        SINGLE
+    }
+
+    private final PublishMode publishMode;
+    private final String userEventsTopic;
+    private final String userCreatedTopic;
+    private final String userUpdatedTopic;
+    private final String userDeletedTopic;
+    private final boolean snapshotsEnabled;
+    private final String userSnapshotsTopic;
+
+    public UserEventTopics(
+            @Value("${kafka.publish-mode:DUAL}") PublishMode publishMode,
+            @Value("${kafka.topics.user-events}") String userEventsTopic,
+            @Value("${kafka.topics.user-created}") String userCreatedTopic,
+            @Value("${kafka.topics.user-updated}") String userUpdatedTopic,
+            @Value("${kafka.topics.user-deleted}") String userDeletedTopic,
+            @Value("${kafka.snapshots.enabled:true}") boolean snapshotsEnabled,
+            @Value("${kafka.topics.user-snapshots:user-snapshots}") String userSnapshotsTopic
+    ) {
+        this.publishMode = publishMode;
+        this.userEventsTopic = userEventsTopic;
+        this.userCreatedTopic = userCreatedTopic;
+        this.userUpdatedTopic = userUpdatedTopic;
+        this.userDeletedTopic = userDeletedTopic;
+        this.snapshotsEnabled = snapshotsEnabled;
+        this.userSnapshotsTopic = userSnapshotsTopic;
+    }
+
+    public boolean isSinglePublish() {
+        return publishMode == PublishMode.SINGLE;
+    }
+
+    public String typeTopic(UserEvent.EventType type) {
+        return switch (type) {
+            case CREATED -> userCreatedTopic;
+            case UPDATED -> userUpdatedTopic;
+            case DELETED -> userDeletedTopic;
+            case SNAPSHOT -> userSnapshotsTopic;
+        };
+    }
+
+    /**
+     * Topic a listener for a single event type should subscribe to in the current mode
+     */
+    public String listenerTopic(String type) {
+        return isSinglePublish() ? userEventsTopic : typeTopic(UserEvent.EventType.valueOf(type));
+    }
+}
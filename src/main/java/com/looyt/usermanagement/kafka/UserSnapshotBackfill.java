@@ -0,0 +1,143 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.mapper.UserMapper;
+import com.looyt.usermanagement.model.SnapshotBackfillProgress;
+import com.looyt.usermanagement.model.User;
+import com.looyt.usermanagement.repository.OutboxEventRepository;
+import com.looyt.usermanagement.repository.SnapshotBackfillProgressRepository;
+import com.looyt.usermanagement.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One-off backfill of the user-snapshots topic with every existing user
+ * The topic otherwise only holds users changed since snapshots were enabled. Users are copied
+ * in id order as SNAPSHOT events through the outbox, so they are relayed in order with the
+ * users' own changes, one chunk per scheduled run with the progress row locked so instances
+ * take turns and no run holds row locks or the scheduler for long.
+ * The backfill is complete once every copied row has been relayed; replicas do not serve
+ * reads before that, see UserReplica. It runs by default only where replica mode is on.
+ */
+@Component
+@Slf4j
+public class UserSnapshotBackfill {
+
+    private static final long CHECK_INTERVAL_MILLIS = 1000;
+
+    private final UserRepository userRepository;
+    private final SnapshotBackfillProgressRepository progressRepository;
+    private final OutboxEventRepository outboxRepository;
+    private final UserEventOutbox eventOutbox;
+    private final UserMapper userMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final UserEventTopics topics;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    private volatile boolean complete;
+    private volatile long nextCheck;
+
+    public UserSnapshotBackfill(
+            UserRepository userRepository,
+            SnapshotBackfillProgressRepository progressRepository,
+            OutboxEventRepository outboxRepository,
+            UserEventOutbox eventOutbox,
+            UserMapper userMapper,
+            TransactionTemplate transactionTemplate,
+            UserEventTopics topics,
+            @Value("${user.replica.backfill.enabled:${user.replica.enabled:false}}") boolean enabled,
+            @Value("${user.replica.backfill.chunk-size:1000}") int chunkSize
+    ) {
+        this.userRepository = userRepository;
+        this.progressRepository = progressRepository;
+        this.outboxRepository = outboxRepository;
+        this.eventOutbox = eventOutbox;
+        this.userMapper = userMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.topics = topics;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${user.replica.backfill.interval-ms:1000}")
+    public void run() {
+        if (!enabled || !topics.isSnapshotsEnabled() || complete) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> step());
+        } catch (Exception e) {
+            log.warn("User snapshot backfill step failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether every user existing when the backfill ran has been relayed to the snapshot topic
+     * Read from the progress row at most once per second until it is
+     */
+    public boolean isComplete() {
+        if (complete) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now < nextCheck) {
+            return false;
+        }
+        nextCheck = now + CHECK_INTERVAL_MILLIS;
+        try {
+            complete = progressRepository.findById(SnapshotBackfillProgress.ID)
+                    .map(progress -> progress.getCompletedAt() != null)
+                    .orElse(false);
+        } catch (Exception e) {
+            log.warn("Could not read user snapshot backfill progress: {}", e.getMessage());
+        }
+        return complete;
+    }
+
+    // One chunk per transaction
+    private void step() {
+        SnapshotBackfillProgress progress = progressRepository.lockById(SnapshotBackfillProgress.ID).orElse(null);
+        if (progress == null) {
+            // A concurrent first run fails on the primary key and retries on its next run
+            progressRepository.saveAndFlush(new SnapshotBackfillProgress(SnapshotBackfillProgress.ID, 0L, null, null, null));
+            log.info("Starting user snapshot backfill - ChunkSize: {}", chunkSize);
+            return;
+        }
+        if (progress.getCompletedAt() != null) {
+            complete = true;
+            return;
+        }
+
+        if (progress.getCopiedAt() == null) {
+            List<User> users = userRepository.findAfterIdForShare(progress.getLastUserId(), Limit.of(chunkSize));
+            if (users.isEmpty()) {
+                progress.setCopiedAt(LocalDateTime.now());
+                progress.setLastOutboxId(outboxRepository.findMaxId());
+                log.info("User snapshot backfill queued every user - LastUserId: {}, LastOutboxId: {}",
+                        progress.getLastUserId(), progress.getLastOutboxId());
+                return;
+            }
+            eventOutbox.appendAll(users.stream()
+                    .map(userMapper::toResponse)
+                    .map(user -> UserEvent.createEvent(
+                            user.getId(), UserEvent.EventType.SNAPSHOT.name(), user, "BACKFILL"))
+                    .toList());
+            progress.setLastUserId(users.getLast().getId());
+            return;
+        }
+
+        // Queued rows are deleted from the outbox once Kafka acknowledged them
+        if (progress.getLastOutboxId() == null || !outboxRepository.existsByIdLessThanEqual(progress.getLastOutboxId())) {
+            progress.setCompletedAt(LocalDateTime.now());
+            log.info("User snapshot backfill complete - Users up to ID: {}", progress.getLastUserId());
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.looyt.usermanagement.dto.UserDTO;
 import com.looyt.usermanagement.model.User;
 import org.mapstruct.*;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 
@@ -34,16 +36,6 @@ public interface UserMapper {
      */
     List<UserDTO.UserResponse> toResponseList(List<User> users);
 
-    /**
-     * Update existing User entity with UpdateUserRequest
-     * Only updates non-null fields from the request
-     */
-    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
-    @Mapping(target = "id", ignore = true)
-    @Mapping(target = "createdAt", ignore = true)
-    @Mapping(target = "updatedAt", ignore = true)
-    void updateEntityFromRequest(UserDTO.UpdateUserRequest request, @MappingTarget User user);
-
     /**
      * Convert Page<User> to UserListResponse with pagination metadata
      */
@@ -54,7 +46,69 @@ public interface UserMapper {
                 page.getTotalElements(),
                 page.getTotalPages(),
                 page.getNumber(),
-                page.getSize()
+                page.getSize(),
+                page.hasNext(),
+                null,
+                UserDTO.CountType.EXACT
+        );
+    }
+
+    /**
+     * Wrap a page of projected responses with pagination metadata
+     */
+    default UserDTO.UserListResponse responsePageToListResponse(Page<UserDTO.UserResponse> page) {
+        return new UserDTO.UserListResponse(
+                page.getContent(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.getNumber(),
+                page.getSize(),
+                page.hasNext(),
+                null,
+                UserDTO.CountType.EXACT
+        );
+    }
+
+    /**
+     * Wrap a slice of projected responses with a total obtained separately (cached or estimated),
+     * or none at all. hasNext always comes from the slice, so it is exact even when the total is not
+     */
+    default UserDTO.UserListResponse sliceToListResponse(Slice<UserDTO.UserResponse> slice, Long totalElements,
+                                                         UserDTO.CountType countType) {
+        Integer totalPages = null;
+        if (totalElements != null) {
+            // A stale or estimated total must not contradict rows that were actually read
+            long seen = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+            totalElements = Math.max(totalElements, seen);
+            totalPages = (int) ((totalElements + slice.getSize() - 1) / slice.getSize());
+        }
+
+        return new UserDTO.UserListResponse(
+                slice.getContent(),
+                totalElements,
+                totalPages,
+                slice.getNumber(),
+                slice.getSize(),
+                slice.hasNext(),
+                null,
+                countType
+        );
+    }
+
+    /**
+     * Convert a keyset Window<User> to UserListResponse with the cursor of the next page
+     */
+    @Named("windowToListResponse")
+    default UserDTO.UserListResponse windowToListResponse(Window<User> window, int pageSize, String nextCursor) {
+        return new UserDTO.UserListResponse(
+                toResponseList(window.getContent()),
+                null,
+                null,
+                null,
+                pageSize,
+                window.hasNext(),
+                nextCursor,
+                null
         );
     }
 }
\ No newline at end of file
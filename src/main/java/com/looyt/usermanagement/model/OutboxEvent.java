@@ -0,0 +1,36 @@
+package com.looyt.usermanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending user event, written in the same transaction as the users change
+ * and removed by the outbox relay once Kafka acknowledged it
+ */
+@Entity
+@Table(name = "user_event_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,29 @@
+package com.looyt.usermanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single-row lease naming the relay instance that may drain the outbox until expiresAt
+ * Taken and renewed per batch by OutboxRelay, see OutboxEventRepository.tryAcquireLease
+ */
+@Entity
+@Table(name = "user_event_outbox_lease")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxRelayLease {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,35 @@
+package com.looyt.usermanagement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the one-off backfill of the user-snapshots topic (single row)
+ * Users up to lastUserId were queued in the outbox, up to outbox id lastOutboxId.
+ * Once every user is queued copiedAt is set, once those rows were relayed completedAt.
+ */
+@Entity
+@Table(name = "user_snapshot_backfill")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotBackfillProgress {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long lastUserId;
+
+    private Long lastOutboxId;
+
+    private LocalDateTime copiedAt;
+
+    private LocalDateTime completedAt;
+}
@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
@@ -16,7 +17,14 @@ import java.time.LocalDateTime;
 @Table(name = "users", indexes = {
         @Index(name = "idx_email", columnList = "email"),
         @Index(name = "idx_role", columnList = "role"),
-        @Index(name = "idx_active", columnList = "active")
+        @Index(name = "idx_active", columnList = "active"),
+        // Composite indexes for combined listing filters, id last so keyset pages stay index-ordered
+        @Index(name = "idx_users_role_active_id", columnList = "role, active, id"),
+        @Index(name = "idx_users_active_id", columnList = "active, id"),
+        @Index(name = "idx_users_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_users_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_users_role_created_at_id", columnList = "role, created_at, id"),
+        @Index(name = "idx_users_active_created_at_id", columnList = "active, created_at, id")
 })
 @NamedEntityGraph(
         name = "User.full",
@@ -59,6 +67,12 @@ public class User {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    // Incremented by every update, the default also covers rows that existed before the column
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
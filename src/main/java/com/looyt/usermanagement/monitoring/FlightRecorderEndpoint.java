@@ -0,0 +1,185 @@
+package com.looyt.usermanagement.monitoring;
+
+import com.looyt.usermanagement.exception.InvalidRequestException;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Flight Recorder Endpoint
+ * On-demand JFR recordings of the running service, one at a time:
+ * POST /actuator/jfr starts one (duration, settings default|profile), GET /actuator/jfr shows it,
+ * DELETE /actuator/jfr stops it early and GET /actuator/jfr/{name} downloads the finished .jfr file.
+ * Operations are serialized by a ReentrantLock, not a monitor: they create and delete files,
+ * which would pin the carrier of a virtual request thread inside synchronized.
+ */
+@Component
+@Endpoint(id = "jfr")
+@Slf4j
+public class FlightRecorderEndpoint {
+
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final Duration defaultDuration;
+    private final Duration maxDuration;
+    private final Lock lock = new ReentrantLock();
+    private Recording recording;
+    private Path file;
+
+    public FlightRecorderEndpoint(
+            @Value("${user.jfr.default-duration:PT1M}") Duration defaultDuration,
+            @Value("${user.jfr.max-duration:PT10M}") Duration maxDuration
+    ) {
+        this.defaultDuration = defaultDuration;
+        this.maxDuration = maxDuration;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return locked(this::describe);
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start(@Nullable Duration duration, @Nullable String settings) {
+        return locked(() -> startRecording(duration, settings));
+    }
+
+    private WebEndpointResponse<Map<String, Object>> startRecording(@Nullable Duration duration,
+                                                                    @Nullable String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(describe(), HttpStatus.CONFLICT.value());
+        }
+
+        Duration length = duration == null ? defaultDuration : duration;
+        if (length.isNegative() || length.isZero() || length.compareTo(maxDuration) > 0) {
+            throw new InvalidRequestException("Duration must be positive and at most " + maxDuration);
+        }
+        String name = settings == null ? "default" : settings;
+        if (!SETTINGS.contains(name)) {
+            throw new InvalidRequestException("Settings must be one of " + SETTINGS);
+        }
+
+        discard();
+        try {
+            file = Files.createTempFile("user-management-", ".jfr");
+            recording = new Recording(Configuration.getConfiguration(name));
+            recording.setName(file.getFileName().toString().replace(".jfr", ""));
+            recording.setToDisk(true);
+            // Written to the file when the recording stops, at the end of the duration or on DELETE
+            recording.setDestination(file);
+            recording.setDuration(length);
+            recording.start();
+        } catch (IOException | ParseException e) {
+            discard();
+            throw new IllegalStateException("Could not start JFR recording", e);
+        }
+        log.info("JFR recording started - Name: {}, Settings: {}, Duration: {}", recording.getName(), name, length);
+        return new WebEndpointResponse<>(describe(), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop() {
+        return locked(() -> {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+                log.info("JFR recording stopped - Name: {}", recording.getName());
+            }
+            return describe();
+        });
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector String name) {
+        return locked(() -> {
+            if (recording == null || !recording.getName().equals(name)) {
+                return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+            }
+            if (!finished()) {
+                return new WebEndpointResponse<>(HttpStatus.CONFLICT.value());
+            }
+            return new WebEndpointResponse<>(new FileSystemResource(file), WebEndpointResponse.STATUS_OK);
+        });
+    }
+
+    private Map<String, Object> describe() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("name", recording.getName());
+        status.put("state", recording.getState());
+        status.put("duration", recording.getDuration());
+        status.put("startTime", recording.getStartTime());
+        status.put("stopTime", recording.getStopTime());
+        if (finished()) {
+            status.put("size", file.toFile().length());
+        }
+        return status;
+    }
+
+    // A recording with a destination is dumped and closed once it stops
+    private boolean finished() {
+        return recording.getState() == RecordingState.STOPPED || recording.getState() == RecordingState.CLOSED;
+    }
+
+    // Only the latest recording is kept, an earlier file is deleted when the next one starts
+    private void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            file = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        locked(() -> {
+            discard();
+            return null;
+        });
+    }
+
+    private <T> T locked(Supplier<T> operation) {
+        lock.lock();
+        try {
+            return operation.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.looyt.usermanagement.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one Kafka send of a user event, from send() to acknowledgement
+ * Committed on the thread that completes the send
+ */
+@Name("com.looyt.usermanagement.UserEventSend")
+@Label("User Event Send")
+@Category({"User Management", "Kafka"})
+@Description("A user event sent to Kafka, until the broker acknowledged or the send failed")
+@StackTrace(false)
+public class UserEventSendEvent extends Event {
+
+    @Label("Topic")
+    String topic;
+
+    @Label("Event Type")
+    String eventType;
+
+    @Label("User ID")
+    long userId;
+
+    @Label("Partition")
+    int partition;
+
+    @Label("Offset")
+    long offset;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    public static UserEventSendEvent start() {
+        UserEventSendEvent event = new UserEventSendEvent();
+        event.begin();
+        return event;
+    }
+
+    public void commit(String topic, String eventType, Long userId, int partition, long offset, boolean succeeded) {
+        if (shouldCommit()) {
+            this.topic = topic;
+            this.eventType = eventType;
+            this.userId = userId == null ? 0 : userId;
+            this.partition = partition;
+            this.offset = offset;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
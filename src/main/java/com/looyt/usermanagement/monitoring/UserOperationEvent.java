@@ -0,0 +1,77 @@
+package com.looyt.usermanagement.monitoring;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.StringJoiner;
+
+/**
+ * JFR event spanning one UserService operation
+ * Fields are only filled in when a recording wants the event (shouldCommit), so outside of
+ * recordings an operation costs one short-lived, usually scalar-replaced, allocation.
+ */
+@Name("com.looyt.usermanagement.UserOperation")
+@Label("User Operation")
+@Category({"User Management", "Service"})
+@Description("A UserService operation, its target and the rows it returned or changed")
+@StackTrace(false)
+public class UserOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("User ID")
+    long userId;
+
+    @Label("Filter")
+    @Description("Criteria used by a listing, e.g. role,active")
+    String filter;
+
+    @Label("Rows")
+    int rows;
+
+    public static UserOperationEvent start() {
+        UserOperationEvent event = new UserOperationEvent();
+        event.begin();
+        return event;
+    }
+
+    public void commit(String operation, Long userId, int rows) {
+        commit(operation, userId, null, rows);
+    }
+
+    public void commit(String operation, Long userId, UserDTO.UserFilter filter, int rows) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.userId = userId == null ? 0 : userId;
+            this.filter = filter == null ? null : criteria(filter);
+            this.rows = rows;
+            commit();
+        }
+    }
+
+    private static String criteria(UserDTO.UserFilter filter) {
+        StringJoiner criteria = new StringJoiner(",");
+        if (filter.getRole() != null) {
+            criteria.add("role");
+        }
+        if (filter.getActive() != null) {
+            criteria.add("active");
+        }
+        if (filter.getNameFilter() != null && !filter.getNameFilter().isEmpty()) {
+            criteria.add("name");
+        }
+        if (filter.getCreatedFrom() != null || filter.getCreatedTo() != null) {
+            criteria.add("createdAt");
+        }
+        if (filter.getUpdatedFrom() != null || filter.getUpdatedTo() != null) {
+            criteria.add("updatedAt");
+        }
+        return criteria.length() == 0 ? "none" : criteria.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.looyt.usermanagement.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Virtual Thread Pinning Monitor
+ * Streams jdk.VirtualThreadPinned JFR events in-process so a code path that holds
+ * a carrier thread (synchronized + blocking I/O, Object.wait) shows up on the
+ * dashboards and in the log with the frame that pinned it
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${virtual-threads.pinning.threshold:PT0.02S}") Duration threshold,
+            MeterRegistry meterRegistry
+    ) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Time virtual threads stayed pinned to their carrier")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started - Threshold: {}", threshold);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+        log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), pinnedFrame(event));
+    }
+
+    private static String pinnedFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        // First application frame is the actionable one, fall back to the top frame
+        return event.getStackTrace().getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .filter(frame -> frame.startsWith("com.looyt."))
+                .findFirst()
+                .orElseGet(() -> event.getStackTrace().getFrames().isEmpty()
+                        ? "unknown"
+                        : event.getStackTrace().getFrames().get(0).getMethod().getName());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.looyt.usermanagement.repository;
+
+import com.looyt.usermanagement.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query(value = "SELECT * FROM user_event_outbox ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<OutboxEvent> findNextBatch(@Param("limit") int limit);
+
+    @Query("SELECT MIN(o.createdAt) FROM OutboxEvent o")
+    LocalDateTime findOldestCreatedAt();
+
+    @Query("SELECT MAX(o.id) FROM OutboxEvent o")
+    Long findMaxId();
+
+    boolean existsByIdLessThanEqual(Long id);
+
+    /**
+     * Take or renew the relay lease for the given number of seconds
+     * Succeeds (1 row) if the lease is free, expired or already held by owner. Unlike a lock it
+     * needs no open transaction or connection while the relay waits for Kafka.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO user_event_outbox_lease (id, owner, expires_at)
+            VALUES (1, :owner, LOCALTIMESTAMP + make_interval(secs => :seconds))
+            ON CONFLICT (id) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at
+            WHERE user_event_outbox_lease.owner = EXCLUDED.owner
+               OR user_event_outbox_lease.expires_at < LOCALTIMESTAMP
+            """, nativeQuery = true)
+    int tryAcquireLease(@Param("owner") String owner, @Param("seconds") long seconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE user_event_outbox_lease SET expires_at = LOCALTIMESTAMP WHERE id = 1 AND owner = :owner",
+            nativeQuery = true)
+    void releaseLease(@Param("owner") String owner);
+}
@@ -0,0 +1,22 @@
+package com.looyt.usermanagement.repository;
+
+import com.looyt.usermanagement.model.SnapshotBackfillProgress;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SnapshotBackfillProgressRepository extends JpaRepository<SnapshotBackfillProgress, Integer> {
+
+    /**
+     * The progress row, locked until the end of the transaction so instances take turns
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM SnapshotBackfillProgress b WHERE b.id = :id")
+    Optional<SnapshotBackfillProgress> lockById(@Param("id") Integer id);
+}
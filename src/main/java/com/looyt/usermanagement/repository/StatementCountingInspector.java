@@ -0,0 +1,34 @@
+package com.looyt.usermanagement.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between begin and end
+ * Statements issued through JdbcTemplate bypass Hibernate and are not counted.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    public static void begin() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Statements since begin on this thread, 0 if begin was not called
+     */
+    public static int end() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,70 @@
+package com.looyt.usermanagement.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.usermanagement.dto.UserDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Row count estimates from PostgreSQL planner statistics, no rows are scanned
+ * Unfiltered listings read pg_class.reltuples, filtered ones the planner's row estimate for
+ * the same predicates UserSpecifications builds. Accuracy depends on how recently the table
+ * was analyzed. Empty when no estimate is available (other databases, never analyzed tables).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserCountEstimator {
+
+    private static final String TABLE_ESTIMATE_SQL =
+            "SELECT reltuples::bigint FROM pg_class WHERE oid = 'users'::regclass";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OptionalLong estimate(UserDTO.UserFilter filter) {
+        try {
+            List<Object> args = new ArrayList<>();
+            String where = UserSpecifications.toSqlWhere(filter, args);
+            if (where.isEmpty()) {
+                Long rows = jdbcTemplate.queryForObject(TABLE_ESTIMATE_SQL, Long.class);
+                // -1 until the table has been vacuumed or analyzed once, ask the planner instead
+                if (rows != null && rows >= 0) {
+                    return OptionalLong.of(rows);
+                }
+            }
+            return planRows("SELECT 1 FROM users" + where, args);
+        } catch (DataAccessException e) {
+            log.debug("Row count estimate unavailable: {}", e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    private OptionalLong planRows(String sql, List<Object> args) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, args.toArray());
+        return Optional.ofNullable(plan)
+                .map(this::readTree)
+                .map(tree -> tree.path(0).path("Plan").path("Plan Rows"))
+                .filter(JsonNode::isNumber)
+                .map(rows -> OptionalLong.of(rows.asLong()))
+                .orElse(OptionalLong.empty());
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            log.debug("Unreadable query plan: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,18 +1,24 @@
 package com.looyt.usermanagement.repository;
 
 import com.looyt.usermanagement.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, UserRepositoryCustom {
 
     @EntityGraph(value = "User.full", type = EntityGraph.EntityGraphType.LOAD)
     Optional<User> findByEmail(String email);
@@ -25,15 +31,30 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @EntityGraph(value = "User.full", type = EntityGraph.EntityGraphType.LOAD)
     Page<User> findAll(Pageable pageable);
 
+    /**
+     * Filtered listing, see UserSpecifications for the composable filters
+     */
     @EntityGraph(value = "User.full", type = EntityGraph.EntityGraphType.LOAD)
-    @Query("SELECT u FROM User u WHERE u.role = :role")
-    Page<User> findByRole(@Param("role") User.UserRole role, Pageable pageable);
-
-    @EntityGraph(value = "User.full", type = EntityGraph.EntityGraphType.LOAD)
-    @Query("SELECT u FROM User u WHERE u.active = :active")
-    Page<User> findByActive(@Param("active") Boolean active, Pageable pageable);
-
-    @EntityGraph(value = "User.full", type = EntityGraph.EntityGraphType.LOAD)
-    @Query("SELECT u FROM User u WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    Page<User> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
-}
\ No newline at end of file
+    Page<User> findAll(Specification<User> spec, Pageable pageable);
+
+    /**
+     * Substring search over name, email and phone ordered by trigram similarity
+     * Backed by the pg_trgm GIN indexes from schema-postgresql.sql, pattern must be LIKE-escaped
+     */
+    @Query(value = "SELECT * FROM users u " +
+            "WHERE lower(u.name) LIKE :pattern OR lower(u.email) LIKE :pattern OR u.phone LIKE :pattern " +
+            "ORDER BY greatest(similarity(lower(u.name), :term), similarity(lower(u.email), :term), " +
+            "similarity(u.phone, :term)) DESC, u.id",
+            countQuery = "SELECT count(*) FROM users u " +
+                    "WHERE lower(u.name) LIKE :pattern OR lower(u.email) LIKE :pattern OR u.phone LIKE :pattern",
+            nativeQuery = true)
+    Page<User> search(@Param("term") String term, @Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Next users after the given id in id order, share-locked until the end of the transaction
+     * Writes to them wait, so their own events are queued after what was read here
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<User> findAfterIdForShare(@Param("afterId") Long afterId, Limit limit);
+}
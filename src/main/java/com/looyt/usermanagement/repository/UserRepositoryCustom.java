@@ -0,0 +1,76 @@
+package com.looyt.usermanagement.repository;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * User repository operations that need the EntityManager directly
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Stream every matching user from a server-side cursor, fetchSize rows per round trip
+     * Rows are detached as they are read so the persistence context stays empty
+     * Must be called inside a transaction and the stream must be closed
+     */
+    Stream<User> streamAll(Specification<User> spec, Sort sort, int fetchSize);
+
+    /**
+     * Read one user straight into a response, no managed entity is created
+     */
+    Optional<UserDTO.UserResponse> findResponseById(Long id);
+
+    /**
+     * Read the users with the given ids into responses in one query, in no particular order
+     * Ids without a user are simply absent from the result
+     */
+    List<UserDTO.UserResponse> findResponsesByIds(Collection<Long> ids);
+
+    /**
+     * Filtered page projected straight into responses, the count query is skipped
+     * when the first page is not full
+     */
+    Page<UserDTO.UserResponse> findResponses(Specification<User> spec, Pageable pageable);
+
+    /**
+     * Filtered page projected into responses without any count, one extra row is read to set hasNext
+     */
+    Slice<UserDTO.UserResponse> findResponseSlice(Specification<User> spec, Pageable pageable);
+
+    /**
+     * Single-statement partial update: sets the non-null fields of the request, bumps the version
+     * and returns the updated row. Empty if no user has this id and version.
+     */
+    Optional<UserDTO.UserResponse> patch(Long id, UserDTO.PatchUserRequest request);
+
+    /**
+     * Single-statement update for PUT: sets the non-null fields of the request and bumps the version,
+     * without a version check. Empty if no user has this id.
+     */
+    Optional<UserDTO.UserResponse> update(Long id, UserDTO.UpdateUserRequest request);
+
+    /**
+     * Deletes the user and returns the deleted row in the same statement, empty if there was none
+     */
+    Optional<UserDTO.UserResponse> deleteReturning(Long id);
+
+    /**
+     * Deletes the given users and returns the rows that existed
+     */
+    List<UserDTO.UserResponse> deleteReturning(Collection<Long> ids);
+
+    /**
+     * Deletes up to limit users matching the filter, lowest ids first, and returns them
+     */
+    List<UserDTO.UserResponse> deleteMatching(UserDTO.UserFilter filter, int limit);
+}
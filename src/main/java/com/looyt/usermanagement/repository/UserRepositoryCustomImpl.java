@@ -0,0 +1,321 @@
+package com.looyt.usermanagement.repository;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Reads in this fragment either project into DTOs (constructor expressions, nothing enters the
+ * persistence context) or detach as they go, and run in read-only transactions so Hibernate
+ * neither flushes nor keeps dirty-checking snapshots
+ * Writes go straight to SQL and return the written row, so no entity is loaded for them either
+ */
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    // Argument order follows the UserResponse all-args constructor
+    private static final String RESPONSE_BY_ID =
+            "SELECT new com.looyt.usermanagement.dto.UserDTO$UserResponse(" +
+            "u.id, u.name, u.email, u.phone, u.role, u.active, u.createdAt, u.updatedAt, u.version) " +
+            "FROM User u WHERE u.id = :id";
+
+    private static final String[] RETURNED_COLUMNS =
+            {"id", "name", "email", "phone", "role", "active", "created_at", "updated_at", "version"};
+
+    private static final String RESPONSES_BY_IDS =
+            "SELECT " + String.join(", ", RETURNED_COLUMNS) + " FROM users WHERE id = ANY(?)";
+
+    // PostgreSQL RETURNING, generated keys are not reported for DELETE by every driver
+    private static final String RETURNING =
+            " RETURNING " + String.join(", ", RETURNED_COLUMNS);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Meter.MeterProvider<Timer> queryTimer;
+
+    UserRepositoryCustomImpl(MeterRegistry meterRegistry) {
+        // Repository methods are timed as a whole (spring.data.repository.invocations),
+        // this splits the ones that run more than one query
+        this.queryTimer = Timer.builder("user.repository.query")
+                .description("Individual queries of composite UserRepository methods")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    public Stream<User> streamAll(Specification<User> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = cb.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()
+                .map(user -> {
+                    entityManager.detach(user);
+                    return user;
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserDTO.UserResponse> findResponseById(Long id) {
+        return entityManager.createQuery(RESPONSE_BY_ID, UserDTO.UserResponse.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDTO.UserResponse> findResponsesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // One array parameter instead of an IN list: the same statement for any number of ids
+        Object idArray = ids.toArray(Long[]::new);
+        return query(RESPONSES_BY_IDS, List.of(idArray));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserDTO.UserResponse> findResponses(Specification<User> spec, Pageable pageable) {
+        List<UserDTO.UserResponse> content = queryTimer.withTags("method", "findResponses", "query", "content")
+                .record(() -> findResponseContent(spec, pageable, pageable.getPageSize()));
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> queryTimer.withTags("method", "findResponses", "query", "count").record(() -> count(spec)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserDTO.UserResponse> findResponseSlice(Specification<User> spec, Pageable pageable) {
+        List<UserDTO.UserResponse> content = findResponseContent(spec, pageable, pageable.getPageSize() + 1);
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private List<UserDTO.UserResponse> findResponseContent(Specification<User> spec, Pageable pageable, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserDTO.UserResponse> query = cb.createQuery(UserDTO.UserResponse.class);
+        Root<User> root = query.from(User.class);
+        query.select(toResponse(cb, root));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private long count(Specification<User> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> root = query.from(User.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    @Transactional
+    public Optional<UserDTO.UserResponse> patch(Long id, UserDTO.PatchUserRequest request) {
+        return updateReturning(id, request.getVersion(), request.getName(), request.getEmail(), request.getPhone(),
+                request.getRole(), request.getActive());
+    }
+
+    @Override
+    @Transactional
+    public Optional<UserDTO.UserResponse> update(Long id, UserDTO.UpdateUserRequest request) {
+        if (request.getName() == null && request.getEmail() == null && request.getPhone() == null
+                && request.getRole() == null && request.getActive() == null) {
+            return findResponseById(id); // nothing to change, as a load and save without dirty fields
+        }
+        return updateReturning(id, null, request.getName(), request.getEmail(), request.getPhone(),
+                request.getRole(), request.getActive());
+    }
+
+    /**
+     * UPDATE ... RETURNING of the non-null fields, bumping the version; guarded by it unless null
+     */
+    private Optional<UserDTO.UserResponse> updateReturning(Long id, Long version, String name, String email,
+                                                           String phone, User.UserRole role, Boolean active) {
+        List<String> assignments = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (name != null) {
+            assignments.add("name = ?");
+            args.add(name);
+        }
+        if (email != null) {
+            assignments.add("email = ?");
+            args.add(email);
+        }
+        if (phone != null) {
+            assignments.add("phone = ?");
+            args.add(phone);
+        }
+        if (role != null) {
+            assignments.add("role = ?");
+            args.add(role.name());
+        }
+        if (active != null) {
+            assignments.add("active = ?");
+            args.add(active);
+        }
+        assignments.add("version = version + 1");
+        // JVM clock like the entity's @PreUpdate, cursors and the replica sort on updatedAt across both paths
+        assignments.add("updated_at = ?");
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.add(id);
+
+        String versionGuard = "";
+        if (version != null) {
+            versionGuard = " AND version = ?";
+            args.add(version);
+        }
+
+        String sql = "UPDATE users SET " + String.join(", ", assignments) + " WHERE id = ?" + versionGuard;
+
+        // Requested generated columns come back from the UPDATE itself (RETURNING on PostgreSQL),
+        // SQLExceptions are converted by Hibernate like those of its own statements
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql, RETURNED_COLUMNS)) {
+                for (int i = 0; i < args.size(); i++) {
+                    statement.setObject(i + 1, args.get(i));
+                }
+                if (statement.executeUpdate() == 0) {
+                    return Optional.empty();
+                }
+                try (ResultSet rs = statement.getGeneratedKeys()) {
+                    return rs.next() ? Optional.of(toResponse(rs)) : Optional.empty();
+                }
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public Optional<UserDTO.UserResponse> deleteReturning(Long id) {
+        return query("DELETE FROM users WHERE id = ?" + RETURNING, List.of(id)).stream().findFirst();
+    }
+
+    @Override
+    @Transactional
+    public List<UserDTO.UserResponse> deleteReturning(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Array parameter like findResponsesByIds, one statement text for every chunk size
+        Object idArray = ids.toArray(Long[]::new);
+        return query("DELETE FROM users WHERE id = ANY(?)" + RETURNING, List.of(idArray));
+    }
+
+    @Override
+    @Transactional
+    public List<UserDTO.UserResponse> deleteMatching(UserDTO.UserFilter filter, int limit) {
+        List<Object> args = new ArrayList<>();
+        String where = UserSpecifications.toSqlWhere(filter, args);
+        args.add(limit);
+
+        // Bounded by the id subquery so a purge runs as a series of short transactions
+        return query("DELETE FROM users WHERE id IN (SELECT id FROM users" + where + " ORDER BY id LIMIT ?)"
+                + RETURNING, args);
+    }
+
+    private List<UserDTO.UserResponse> query(String sql, List<Object> args) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < args.size(); i++) {
+                    statement.setObject(i + 1, args.get(i));
+                }
+                List<UserDTO.UserResponse> rows = new ArrayList<>();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(toResponse(rs));
+                    }
+                }
+                return rows;
+            }
+        });
+    }
+
+    private static UserDTO.UserResponse toResponse(ResultSet rs) throws SQLException {
+        return new UserDTO.UserResponse(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                User.UserRole.valueOf(rs.getString("role")),
+                rs.getBoolean("active"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class),
+                rs.getLong("version")
+        );
+    }
+
+    // Same constructor arguments as RESPONSE_BY_ID
+    private static CompoundSelection<UserDTO.UserResponse> toResponse(CriteriaBuilder cb, Root<User> root) {
+        return cb.construct(UserDTO.UserResponse.class,
+                root.get("id"),
+                root.get("name"),
+                root.get("email"),
+                root.get("phone"),
+                root.get("role"),
+                root.get("active"),
+                root.get("createdAt"),
+                root.get("updatedAt"),
+                root.get("version"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.looyt.usermanagement.repository;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.model.User;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Composable filters for user listings
+ * Any subset of UserFilter is combined into a single WHERE clause; the composite
+ * indexes declared on User are laid out for the common combinations
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> matching(UserDTO.UserFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.getRole() != null) {
+                predicates.add(cb.equal(root.get("role"), filter.getRole()));
+            }
+            if (filter.getActive() != null) {
+                predicates.add(cb.equal(root.get("active"), filter.getActive()));
+            }
+            if (filter.getNameFilter() != null && !filter.getNameFilter().isEmpty()) {
+                predicates.add(cb.like(cb.lower(root.get("name")), containsPattern(filter.getNameFilter()), '\\'));
+            }
+            if (filter.getCreatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getCreatedFrom()));
+            }
+            if (filter.getCreatedTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.getCreatedTo()));
+            }
+            if (filter.getUpdatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("updatedAt"), filter.getUpdatedFrom()));
+            }
+            if (filter.getUpdatedTo() != null) {
+                predicates.add(cb.lessThan(root.get("updatedAt"), filter.getUpdatedTo()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Lower-cased '%value%' pattern with LIKE wildcards escaped by a backslash
+     */
+    public static String containsPattern(String value) {
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * Same predicates as matching, as a SQL WHERE clause over the users table (empty without any)
+     * Bind values are appended to args in placeholder order
+     */
+    public static String toSqlWhere(UserDTO.UserFilter filter, List<Object> args) {
+        List<String> predicates = new ArrayList<>();
+
+        if (filter.getRole() != null) {
+            predicates.add("role = ?");
+            args.add(filter.getRole().name());
+        }
+        if (filter.getActive() != null) {
+            predicates.add("active = ?");
+            args.add(filter.getActive());
+        }
+        if (filter.getNameFilter() != null && !filter.getNameFilter().isEmpty()) {
+            predicates.add("lower(name) LIKE ? ESCAPE '\\'");
+            args.add(containsPattern(filter.getNameFilter()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add("created_at >= ?");
+            args.add(Timestamp.valueOf(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add("created_at < ?");
+            args.add(Timestamp.valueOf(filter.getCreatedTo()));
+        }
+        if (filter.getUpdatedFrom() != null) {
+            predicates.add("updated_at >= ?");
+            args.add(Timestamp.valueOf(filter.getUpdatedFrom()));
+        }
+        if (filter.getUpdatedTo() != null) {
+            predicates.add("updated_at < ?");
+            args.add(Timestamp.valueOf(filter.getUpdatedTo()));
+        }
+
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+}
@@ -0,0 +1,95 @@
+package com.looyt.usermanagement.service;
+
+import com.looyt.usermanagement.cache.UserCache;
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.exception.InvalidRequestException;
+import com.looyt.usermanagement.monitoring.UserOperationEvent;
+import com.looyt.usermanagement.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Multi-get of users by id
+ * Ids found in the user cache are served from it, the rest are read with one
+ * WHERE id = ANY(?) query per chunk, so N ids cost ceil(misses / chunk-size) queries
+ */
+@Service
+@Slf4j
+public class UserBatchGetService {
+
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final int maxIds;
+    private final int chunkSize;
+
+    public UserBatchGetService(
+            UserRepository userRepository,
+            UserCache userCache,
+            @Value("${user.batch-get.max-ids:1000}") int maxIds,
+            @Value("${user.batch-get.chunk-size:500}") int chunkSize
+    ) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.maxIds = maxIds;
+        this.chunkSize = chunkSize;
+    }
+
+    public UserDTO.BatchGetResponse getUsers(UserDTO.BatchGetRequest request) {
+        List<Long> requested = request.getIds();
+        if (requested == null || requested.isEmpty()) {
+            throw new InvalidRequestException("Batch get needs at least one id");
+        }
+        if (requested.size() > maxIds) {
+            throw new InvalidRequestException("Batch get accepts at most " + maxIds + " ids");
+        }
+        if (requested.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidRequestException("Batch get ids must not be null");
+        }
+
+        UserOperationEvent jfrEvent = UserOperationEvent.start();
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(requested);
+        Map<Long, UserDTO.UserResponse> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            Optional<UserDTO.UserResponse> cached = userCache.get(id);
+            if (cached.isPresent()) {
+                found.put(id, cached.get());
+            } else {
+                misses.add(id);
+            }
+        }
+
+        for (int from = 0; from < misses.size(); from += chunkSize) {
+            List<Long> chunk = misses.subList(from, Math.min(from + chunkSize, misses.size()));
+            for (UserDTO.UserResponse user : userRepository.findResponsesByIds(chunk)) {
+                found.put(user.getId(), user);
+                userCache.put(user);
+            }
+        }
+
+        List<UserDTO.UserResponse> users = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            UserDTO.UserResponse user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        log.info("Batch get - Requested: {}, Cache hits: {}, Found: {}, Missing: {}",
+                ids.size(), ids.size() - misses.size(), users.size(), missing.size());
+        jfrEvent.commit("batch-get", null, users.size());
+        return new UserDTO.BatchGetResponse(users, missing);
+    }
+}
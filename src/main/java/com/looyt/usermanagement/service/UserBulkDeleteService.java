@@ -0,0 +1,100 @@
+package com.looyt.usermanagement.service;
+
+import com.looyt.usermanagement.cache.UserCache;
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.exception.InvalidRequestException;
+import com.looyt.usermanagement.kafka.UserEventOutbox;
+import com.looyt.usermanagement.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Set-based user deletion by id list or filter
+ * Every chunk is one DELETE ... RETURNING plus its DELETED events in the outbox, committed
+ * together, so an interrupted purge keeps what it deleted and can simply be repeated
+ */
+@Service
+@Slf4j
+public class UserBulkDeleteService {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UserEventOutbox eventOutbox;
+    private final UserCache userCache;
+    private final int chunkSize;
+
+    public UserBulkDeleteService(
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate,
+            UserEventOutbox eventOutbox,
+            UserCache userCache,
+            @Value("${user.bulk-delete.chunk-size:1000}") int chunkSize
+    ) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventOutbox = eventOutbox;
+        this.userCache = userCache;
+        this.chunkSize = chunkSize;
+    }
+
+    public UserDTO.BulkDeleteResponse deleteUsers(UserDTO.BulkDeleteRequest request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byFilter = request.getFilter() != null && hasCriteria(request.getFilter());
+        if (byIds == byFilter) {
+            throw new InvalidRequestException("Bulk delete needs either ids or a filter with at least one criterion");
+        }
+
+        log.info("Starting bulk user delete - Ids: {}, Filter: {}, ChunkSize: {}",
+                byIds ? request.getIds().size() : null, request.getFilter(), chunkSize);
+
+        UserDTO.BulkDeleteResponse result = new UserDTO.BulkDeleteResponse(0, 0);
+        if (byIds) {
+            List<Long> ids = request.getIds().stream().distinct().toList();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                deleteChunk(() -> userRepository.deleteReturning(chunk), result);
+            }
+        } else {
+            int deleted;
+            do {
+                deleted = deleteChunk(() -> userRepository.deleteMatching(request.getFilter(), chunkSize), result);
+            } while (deleted == chunkSize);
+        }
+
+        log.info("Bulk user delete finished - Deleted: {}, Chunks: {}", result.getDeleted(), result.getChunks());
+        return result;
+    }
+
+    private int deleteChunk(Supplier<List<UserDTO.UserResponse>> delete, UserDTO.BulkDeleteResponse result) {
+        List<UserDTO.UserResponse> deleted = transactionTemplate.execute(status -> {
+            List<UserDTO.UserResponse> rows = delete.get();
+            eventOutbox.appendAll(rows.stream()
+                    .map(user -> UserEvent.createEvent(
+                            user.getId(), UserEvent.EventType.DELETED.name(), user, "BULK_DELETE"))
+                    .toList());
+            return rows;
+        });
+
+        userCache.evict(deleted.stream().map(UserDTO.UserResponse::getId).toList());
+        result.setDeleted(result.getDeleted() + deleted.size());
+        result.setChunks(result.getChunks() + 1);
+        log.debug("Deleted chunk - Rows: {}", deleted.size());
+        return deleted.size();
+    }
+
+    private static boolean hasCriteria(UserDTO.UserFilter filter) {
+        return filter.getRole() != null
+                || filter.getActive() != null
+                || (filter.getNameFilter() != null && !filter.getNameFilter().isEmpty())
+                || filter.getCreatedFrom() != null
+                || filter.getCreatedTo() != null
+                || filter.getUpdatedFrom() != null
+                || filter.getUpdatedTo() != null;
+    }
+}
@@ -0,0 +1,98 @@
+package com.looyt.usermanagement.service;
+
+import com.looyt.usermanagement.exception.InvalidRequestException;
+import com.looyt.usermanagement.model.User;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset cursor for user listings
+ * Encodes the (sort key, id) of the last row of a page so the next page can seek past it
+ */
+public final class UserCursor {
+
+    private static final String SEPARATOR = "|";
+
+    // Only NOT NULL columns: a null sort value can neither be encoded nor seeked past,
+    // so updatedAt stays out until its column is NOT NULL
+    private static final Map<String, Function<User, Object>> SORT_KEYS = Map.of(
+            "id", User::getId,
+            "name", User::getName,
+            "email", User::getEmail,
+            "phone", User::getPhone,
+            "role", User::getRole,
+            "active", User::getActive,
+            "createdAt", User::getCreatedAt
+    );
+
+    private UserCursor() {
+    }
+
+    /**
+     * Check that the listing can be seeked on the given sort field
+     */
+    public static void validateSortKey(String sortBy) {
+        if (!SORT_KEYS.containsKey(sortBy)) {
+            throw new InvalidRequestException("Cursor pagination is not supported for sort field: " + sortBy);
+        }
+    }
+
+    /**
+     * Build the cursor pointing after the given user
+     */
+    public static String encode(User last, String sortBy, Sort.Direction direction) {
+        Object value = SORT_KEYS.get(sortBy).apply(last);
+        String raw = sortBy + SEPARATOR + direction.name() + SEPARATOR + last.getId()
+                + SEPARATOR + (value == null ? "" : value.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Resolve a cursor into a scroll position, an empty cursor means the first page
+     */
+    public static ScrollPosition decode(String cursor, String sortBy, Sort.Direction direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split("\\" + SEPARATOR, 4);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Malformed cursor");
+        }
+
+        if (parts.length != 4 || !parts[0].equals(sortBy) || !parts[1].equals(direction.name())) {
+            throw new InvalidRequestException("Cursor does not match the requested sort order");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            if (!"id".equals(sortBy)) {
+                keys.put(sortBy, parseValue(sortBy, parts[3]));
+            }
+            keys.put("id", Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("Malformed cursor");
+        }
+
+        return ScrollPosition.forward(keys);
+    }
+
+    private static Object parseValue(String sortBy, String value) {
+        return switch (sortBy) {
+            case "role" -> User.UserRole.valueOf(value);
+            case "active" -> Boolean.valueOf(value);
+            case "createdAt" -> LocalDateTime.parse(value);
+            default -> value;
+        };
+    }
+}
@@ -0,0 +1,154 @@
+package com.looyt.usermanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.exception.InvalidRequestException;
+import com.looyt.usermanagement.mapper.UserMapper;
+import com.looyt.usermanagement.model.User;
+import com.looyt.usermanagement.repository.UserRepository;
+import com.looyt.usermanagement.repository.UserSpecifications;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Full user export
+ * Streams every user matching the listing filters from a database cursor straight to
+ * the output, one row at a time, so memory use does not depend on the number of rows
+ */
+@Service
+@Slf4j
+public class UserExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private static final String CSV_HEADER = "id,name,email,phone,role,active,createdAt,updatedAt\n";
+
+    // Primary key order: stable across the whole export and served by the pk index
+    private static final Sort EXPORT_ORDER = Sort.by(Sort.Direction.ASC, "id");
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final ObjectWriter jsonWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    public UserExportService(
+            UserRepository userRepository,
+            UserMapper userMapper,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${user.export.fetch-size:1000}") int fetchSize
+    ) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.jsonWriter = objectMapper.writerFor(UserDTO.UserResponse.class);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Write all users matching the filter to the output in the given format
+     * The cursor needs an open transaction, it is held for the duration of the export
+     */
+    public void exportUsers(UserDTO.UserFilter filter, Format format, OutputStream output) {
+        log.info("Starting user export - Format: {}, Filter: {}", format, filter);
+
+        OutputStream out = new BufferedOutputStream(output, OUTPUT_BUFFER_SIZE);
+        Long exported = readOnlyTransaction.execute(status -> {
+            long rows = 0;
+            try (Stream<User> users = userRepository.streamAll(
+                    UserSpecifications.matching(filter), EXPORT_ORDER, fetchSize)) {
+                if (format == Format.CSV) {
+                    out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+                }
+
+                for (User user : (Iterable<User>) users::iterator) {
+                    writeRow(userMapper.toResponse(user), format, out);
+                    rows++;
+                }
+                out.flush();
+            } catch (IOException e) {
+                // Mostly the client going away, the transaction and cursor are released on the way out
+                throw new UncheckedIOException(e);
+            }
+            return rows;
+        });
+
+        log.info("User export finished - Format: {}, Rows: {}", format, exported);
+    }
+
+    private void writeRow(UserDTO.UserResponse user, Format format, OutputStream out) throws IOException {
+        if (format == Format.NDJSON) {
+            out.write(jsonWriter.writeValueAsBytes(user));
+            out.write('\n');
+            return;
+        }
+
+        String line = user.getId() + "," +
+                csv(user.getName()) + "," +
+                csv(user.getEmail()) + "," +
+                csv(user.getPhone()) + "," +
+                user.getRole() + "," +
+                user.getActive() + "," +
+                nullToEmpty(user.getCreatedAt()) + "," +
+                nullToEmpty(user.getUpdatedAt()) + "\n";
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String nullToEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
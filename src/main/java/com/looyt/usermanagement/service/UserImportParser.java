@@ -0,0 +1,194 @@
+package com.looyt.usermanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.exception.InvalidRequestException;
+import com.looyt.usermanagement.model.User;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming row reader for bulk user imports
+ * Reads one CreateUserRequest at a time so input size does not affect heap usage
+ * A CSV row is a record, a quoted field may span lines (as UserExportService writes them),
+ * line breaks inside it are read as \n
+ */
+public class UserImportParser {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * A parsed input row, either a request or the reason it could not be parsed
+     */
+    public record Row(long rowNumber, UserDTO.CreateUserRequest request, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> columns;
+    private long rowNumber;
+
+    public UserImportParser(BufferedReader reader, Format format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Read the next non-blank row, or null at end of input
+     */
+    public Row next() {
+        try {
+            if (format == Format.CSV && columns == null) {
+                readHeader();
+            }
+
+            String line;
+            do {
+                line = format == Format.CSV ? readCsvRecord() : reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                rowNumber++;
+            } while (line.isBlank());
+
+            return format == Format.CSV ? parseCsv(line) : parseJson(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read lines until every quoted field is closed, null at end of input
+     * A record still open at end of input is returned as is and rejected by parseCsv
+     */
+    private String readCsvRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null || !openQuote(line)) {
+            return line;
+        }
+
+        StringBuilder record = new StringBuilder(line);
+        boolean open = true;
+        String next;
+        while (open && (next = reader.readLine()) != null) {
+            record.append('\n').append(next);
+            open ^= openQuote(next);
+        }
+        return record.toString();
+    }
+
+    // Escaped quotes come in pairs, so an odd count leaves a field open
+    private static boolean openQuote(String text) {
+        boolean open = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                open = !open;
+            }
+        }
+        return open;
+    }
+
+    private void readHeader() throws IOException {
+        String header = readCsvRecord();
+        if (header == null) {
+            throw new InvalidRequestException("CSV input is empty, expected a header row");
+        }
+
+        columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        for (String required : List.of("name", "email", "phone")) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidRequestException("CSV header is missing column: " + required);
+            }
+        }
+    }
+
+    private Row parseCsv(String line) {
+        if (openQuote(line)) {
+            return new Row(rowNumber, null, "Unterminated quoted field");
+        }
+        List<String> fields = splitCsv(line);
+
+        UserDTO.CreateUserRequest request = new UserDTO.CreateUserRequest();
+        request.setName(field(fields, "name"));
+        request.setEmail(field(fields, "email"));
+        request.setPhone(field(fields, "phone"));
+
+        String role = field(fields, "role");
+        if (role != null && !role.isBlank()) {
+            try {
+                request.setRole(User.UserRole.valueOf(role.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return new Row(rowNumber, request, "Unknown role: " + role);
+            }
+        }
+
+        return new Row(rowNumber, request, null);
+    }
+
+    private Row parseJson(String line) {
+        try {
+            UserDTO.CreateUserRequest request = objectMapper.readValue(line, UserDTO.CreateUserRequest.class);
+            // A literal null line parses to no request at all
+            return request == null
+                    ? new Row(rowNumber, null, "Row is not a JSON object")
+                    : new Row(rowNumber, request, null);
+        } catch (IOException e) {
+            return new Row(rowNumber, null, "Malformed JSON row");
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+
+    /**
+     * Split a single RFC 4180 record, honouring quoted fields and escaped quotes
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+
+        return fields;
+    }
+}
@@ -0,0 +1,221 @@
+package com.looyt.usermanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.kafka.UserEventOutbox;
+import com.looyt.usermanagement.model.User;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user import
+ * Streams rows from the request, validates them like CreateUserRequest and loads them
+ * in chunks through the PostgreSQL COPY protocol into a staging table
+ * CREATED events go through the outbox in the chunk's transaction
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    private static final String CREATE_STAGING_TABLE =
+            "CREATE TEMP TABLE IF NOT EXISTS users_import " +
+            "(row_no bigint, name text, email text, phone text, role text) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_TO_STAGING =
+            "COPY users_import (row_no, name, email, phone, role) FROM STDIN WITH (FORMAT csv)";
+
+    // DISTINCT ON keeps the first occurrence of an email inside the chunk,
+    // ON CONFLICT skips emails that already exist instead of aborting the load.
+    // Timestamps come from the JVM clock like every other write path
+    private static final String MERGE_FROM_STAGING =
+            "INSERT INTO users (name, email, phone, role, active, created_at, updated_at) " +
+            "SELECT DISTINCT ON (email) name, email, phone, role, true, ?, ? " +
+            "FROM users_import ORDER BY email, row_no " +
+            "ON CONFLICT (email) DO NOTHING " +
+            "RETURNING id, name, email, phone, role, active, created_at, updated_at, version";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final UserEventOutbox eventOutbox;
+    private final int chunkSize;
+    private final int maxReportedRejects;
+
+    public UserImportService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            Validator validator,
+            ObjectMapper objectMapper,
+            UserEventOutbox eventOutbox,
+            @Value("${user.import.chunk-size:5000}") int chunkSize,
+            @Value("${user.import.max-reported-rejects:1000}") int maxReportedRejects
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventOutbox = eventOutbox;
+        this.chunkSize = chunkSize;
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    public UserDTO.ImportResponse importUsers(InputStream input, UserImportParser.Format format) {
+        log.info("Starting bulk user import - Format: {}, ChunkSize: {}", format, chunkSize);
+
+        UserImportParser parser = new UserImportParser(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), format, objectMapper);
+        UserDTO.ImportResponse result = new UserDTO.ImportResponse(0, 0, 0, new ArrayList<>());
+        List<UserImportParser.Row> chunk = new ArrayList<>(chunkSize);
+
+        UserImportParser.Row row;
+        while ((row = parser.next()) != null) {
+            result.setTotalRows(result.getTotalRows() + 1);
+
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error != null) {
+                reject(result, row, error);
+                continue;
+            }
+
+            if (row.request().getRole() == null) {
+                row.request().setRole(User.UserRole.USER);
+            }
+
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                writeChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, result);
+        }
+
+        log.info("Bulk user import finished - Rows: {}, Imported: {}, Rejected: {}",
+                result.getTotalRows(), result.getImported(), result.getRejected());
+
+        return result;
+    }
+
+    private String validate(UserDTO.CreateUserRequest request) {
+        Set<ConstraintViolation<UserDTO.CreateUserRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void writeChunk(List<UserImportParser.Row> chunk, UserDTO.ImportResponse result) {
+        List<UserDTO.UserResponse> inserted = transactionTemplate.execute(status ->
+                jdbcTemplate.execute((ConnectionCallback<List<UserDTO.UserResponse>>) connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute(CREATE_STAGING_TABLE);
+                    }
+
+                    try {
+                        connection.unwrap(PGConnection.class)
+                                .getCopyAPI()
+                                .copyIn(COPY_TO_STAGING, new StringReader(toCsv(chunk)));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+
+                    List<UserDTO.UserResponse> rows = new ArrayList<>(chunk.size());
+                    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                    try (PreparedStatement statement = connection.prepareStatement(MERGE_FROM_STAGING)) {
+                        statement.setTimestamp(1, now);
+                        statement.setTimestamp(2, now);
+                        try (ResultSet rs = statement.executeQuery()) {
+                            while (rs.next()) {
+                                rows.add(new UserDTO.UserResponse(
+                                        rs.getLong("id"),
+                                        rs.getString("name"),
+                                        rs.getString("email"),
+                                        rs.getString("phone"),
+                                        User.UserRole.valueOf(rs.getString("role")),
+                                        rs.getBoolean("active"),
+                                        rs.getObject("created_at", LocalDateTime.class),
+                                        rs.getObject("updated_at", LocalDateTime.class),
+                                        rs.getLong("version")
+                                ));
+                            }
+                        }
+                    }
+
+                    // CREATED events are queued in the same transaction and relayed to Kafka in batches
+                    eventOutbox.appendAll(rows.stream()
+                            .map(user -> UserEvent.createEvent(
+                                    user.getId(), UserEvent.EventType.CREATED.name(), user, "IMPORT"))
+                            .toList());
+                    return rows;
+                }));
+
+        Set<String> insertedEmails = new HashSet<>();
+        inserted.forEach(user -> insertedEmails.add(user.getEmail()));
+        for (UserImportParser.Row row : chunk) {
+            // The first row carrying an inserted email consumes it, every other one is a duplicate
+            if (!insertedEmails.remove(row.request().getEmail())) {
+                reject(result, row, "User with email " + row.request().getEmail() + " already exists");
+            }
+        }
+
+        result.setImported(result.getImported() + inserted.size());
+        log.debug("Imported chunk - Rows: {}, Inserted: {}", chunk.size(), inserted.size());
+    }
+
+    private void reject(UserDTO.ImportResponse result, UserImportParser.Row row, String reason) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getRejects().size() < maxReportedRejects) {
+            String email = row.request() != null ? row.request().getEmail() : null;
+            result.getRejects().add(new UserDTO.ImportReject(row.rowNumber(), email, reason));
+        }
+    }
+
+    private static String toCsv(List<UserImportParser.Row> chunk) {
+        StringBuilder csv = new StringBuilder(chunk.size() * 96);
+        for (UserImportParser.Row row : chunk) {
+            UserDTO.CreateUserRequest request = row.request();
+            csv.append(row.rowNumber()).append(',')
+                    .append(quote(request.getName())).append(',')
+                    .append(quote(request.getEmail())).append(',')
+                    .append(quote(request.getPhone())).append(',')
+                    .append(request.getRole().name()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,59 @@
+package com.looyt.usermanagement.service;
+
+import com.looyt.usermanagement.cache.SingleFlight;
+import com.looyt.usermanagement.dto.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Shares one database load between concurrent identical UserService reads
+ * Lookups by id share only the load in flight (the user cache keeps results), identical listings
+ * also share its result for user.coalescing.list-window. A listing load runs in a read-only
+ * transaction on the caller that started it, waiting callers hold no connection.
+ */
+@Component
+@Slf4j
+public class UserReadCoalescer {
+
+    /**
+     * Parameters that identify a listing
+     */
+    public record ListKey(int page, int size, String sortBy, String sortDir,
+                          UserDTO.UserFilter filter, UserDTO.CountType countType) {
+    }
+
+    private final boolean enabled;
+    private final SingleFlight<Long, UserDTO.UserResponse> lookups;
+    private final SingleFlight<ListKey, UserDTO.UserListResponse> listings;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public UserReadCoalescer(
+            @Value("${user.coalescing.enabled:true}") boolean enabled,
+            @Value("${user.coalescing.list-window:PT0.1S}") Duration listWindow,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.lookups = new SingleFlight<>("user", Duration.ZERO, meterRegistry);
+        this.listings = new SingleFlight<>("users", listWindow, meterRegistry);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        log.info("User read coalescing initialized - Enabled: {}, ListWindow: {}", enabled, listWindow);
+    }
+
+    public UserDTO.UserResponse user(Long id, Supplier<UserDTO.UserResponse> loader) {
+        return enabled ? lookups.load(id, loader) : loader.get();
+    }
+
+    public UserDTO.UserListResponse users(ListKey key, Supplier<UserDTO.UserListResponse> loader) {
+        Supplier<UserDTO.UserListResponse> transactional = () -> readOnlyTransaction.execute(status -> loader.get());
+        return enabled ? listings.load(key, transactional) : transactional.get();
+    }
+}
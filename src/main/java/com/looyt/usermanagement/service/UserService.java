@@ -1,37 +1,67 @@
 package com.looyt.usermanagement.service;
 
+import com.looyt.usermanagement.cache.EmailMembershipFilter;
+import com.looyt.usermanagement.cache.UserCache;
+import com.looyt.usermanagement.cache.UserCountCache;
+import com.looyt.usermanagement.cache.UserReplica;
 import com.looyt.usermanagement.dto.UserDTO;
 import com.looyt.usermanagement.dto.UserEvent;
 import com.looyt.usermanagement.exception.ResourceNotFoundException;
+import com.looyt.usermanagement.exception.StaleVersionException;
 import com.looyt.usermanagement.exception.DuplicateResourceException;
-import com.looyt.usermanagement.kafka.UserEventProducer;
+import com.looyt.usermanagement.exception.InvalidRequestException;
+import com.looyt.usermanagement.kafka.UserEventOutbox;
 import com.looyt.usermanagement.mapper.UserMapper;
 import com.looyt.usermanagement.model.User;
+import com.looyt.usermanagement.monitoring.UserOperationEvent;
+import com.looyt.usermanagement.repository.UserCountEstimator;
 import com.looyt.usermanagement.repository.UserRepository;
+import com.looyt.usermanagement.repository.UserSpecifications;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "user.service", description = "UserService operations, tagged by method and exception")
 public class UserService {
 
+    // Trigram indexes cannot serve patterns shorter than one trigram
+    private static final int MIN_SEARCH_LENGTH = 3;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private final UserEventProducer eventProducer;
-
+    private final UserEventOutbox eventOutbox;
+    private final UserCache userCache;
+    private final EmailMembershipFilter emailFilter;
+    private final UserCountCache countCache;
+    private final UserCountEstimator countEstimator;
+    private final UserReadCoalescer readCoalescer;
+    private final UserReplica replica;
+
+    @Transactional
     public UserDTO.UserResponse createUser(UserDTO.CreateUserRequest request) {
         log.info("Creating new user with email: {}", request.getEmail());
-
-        if (userRepository.existsByEmail(request.getEmail())) {
-            log.error("User with email {} already exists", request.getEmail());
-            throw new DuplicateResourceException("User with email " + request.getEmail() + " already exists");
-        }
+        UserOperationEvent jfrEvent = UserOperationEvent.start();
 
         User user = userMapper.toEntity(request);
 
@@ -39,127 +69,303 @@ public class UserService {
             user.setRole(User.UserRole.USER);
         }
 
-        User savedUser = userRepository.save(user);
+        // No existence pre-check: the insert runs immediately (identity id) and the unique
+        // constraint on email decides, which also covers concurrent sign-ups
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmailOr(e, request.getEmail());
+        }
+        emailFilter.add(savedUser.getEmail());
         log.info("User created successfully with ID: {}", savedUser.getId());
 
         UserDTO.UserResponse response = userMapper.toResponse(savedUser);
 
-        try {
-            UserEvent event = UserEvent.createEvent(
-                    savedUser.getId(),
-                    UserEvent.EventType.CREATED.name(),
-                    response,
-                    "SYSTEM"
-            );
-            eventProducer.publishUserCreatedEvent(event);
-        } catch (Exception e) {
-            log.error("Failed to publish user created event for user ID: {}", savedUser.getId(), e);
-            // Don't fail the operation if Kafka is down
-        }
+        // Written in the same transaction, OutboxRelay delivers it to Kafka
+        eventOutbox.append(UserEvent.createEvent(
+                savedUser.getId(),
+                UserEvent.EventType.CREATED.name(),
+                response,
+                "SYSTEM"
+        ));
 
+        jfrEvent.commit("create", savedUser.getId(), 1);
         return response;
     }
 
     public UserDTO.UserResponse getUserById(Long id) {
         log.info("Fetching user with ID: {}", id);
+        UserOperationEvent jfrEvent = UserOperationEvent.start();
 
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.error("User not found with ID: {}", id);
-                    return new ResourceNotFoundException("User not found with ID: " + id);
-                });
+        // An id the replica lacks may have been created within its staleness, the database decides
+        Optional<UserDTO.UserResponse> replicated = replica.isServing() ? replica.get(id) : Optional.empty();
+        if (replicated.isPresent()) {
+            jfrEvent.commit("get", id, 1);
+            return replicated.get();
+        }
+
+        // Cache hits never open a transaction, concurrent misses for the id share one
+        // query that projects straight into the response
+        UserDTO.UserResponse user = userCache.get(id).orElseGet(() -> readCoalescer.user(id, () -> {
+            UserDTO.UserResponse response = userRepository.findResponseById(id)
+                    .orElseThrow(() -> {
+                        log.error("User not found with ID: {}", id);
+                        return new ResourceNotFoundException("User not found with ID: " + id);
+                    });
+
+            userCache.put(response);
+            return response;
+        }));
+
+        jfrEvent.commit("get", id, 1);
+        return user;
+    }
 
-        return userMapper.toResponse(user);
+    /**
+     * The user as response JSON with its ETag, served from the user cache once serialized
+     * Replica reads bypass the user cache, the two are kept current by different topics
+     */
+    public UserCache.SerializedUser getSerializedUserById(Long id) {
+        Optional<UserCache.SerializedUser> cached = replica.isServing() ? Optional.empty() : userCache.getSerialized(id);
+        if (cached.isPresent()) {
+            log.info("Fetching user with ID: {}", id);
+            UserOperationEvent.start().commit("get", id, 1);
+            return cached.get();
+        }
+        return userCache.serialize(getUserById(id));
     }
 
+    /**
+     * Identical concurrent listings share one read-only transaction, see UserReadCoalescer
+     */
     public UserDTO.UserListResponse getAllUsers(int page, int size, String sortBy, String sortDir,
-                                                User.UserRole role, Boolean active, String nameFilter) {
-        log.info("Fetching users - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+                                                UserDTO.UserFilter filter, UserDTO.CountType countType) {
+        log.info("Fetching users - page: {}, size: {}, sortBy: {}, sortDir: {}, filter: {}, count: {}",
+                page, size, sortBy, sortDir, filter, countType);
+        UserOperationEvent jfrEvent = UserOperationEvent.start();
+
+        UserDTO.UserListResponse response = readCoalescer.users(
+                new UserReadCoalescer.ListKey(page, size, sortBy, sortDir, filter, countType),
+                () -> loadUsers(page, size, sortBy, sortDir, filter, countType));
+
+        jfrEvent.commit("list", null, filter, response.getUsers().size());
+        return response;
+    }
+
+    private UserDTO.UserListResponse loadUsers(int page, int size, String sortBy, String sortDir,
+                                               UserDTO.UserFilter filter, UserDTO.CountType countType) {
+        Pageable pageable = PageRequest.of(page, size, sort(sortBy, sortDir));
+        Specification<User> spec = UserSpecifications.matching(filter);
+
+        if (countType == UserDTO.CountType.EXACT) {
+            return userMapper.responsePageToListResponse(userRepository.findResponses(spec, pageable));
+        }
 
-        Sort sort = sortDir.equalsIgnoreCase("desc")
+        // Every other mode reads one extra row for hasNext instead of running COUNT(*) per request
+        Slice<UserDTO.UserResponse> slice = userRepository.findResponseSlice(spec, pageable);
+        return switch (countType) {
+            case CACHED -> userMapper.sliceToListResponse(slice,
+                    countCache.get(filter, key -> userRepository.count(spec)), UserDTO.CountType.CACHED);
+            case ESTIMATED -> {
+                OptionalLong estimate = countEstimator.estimate(filter);
+                yield estimate.isPresent()
+                        ? userMapper.sliceToListResponse(slice, estimate.getAsLong(), UserDTO.CountType.ESTIMATED)
+                        : userMapper.sliceToListResponse(slice, userRepository.count(spec), UserDTO.CountType.EXACT);
+            }
+            default -> userMapper.sliceToListResponse(slice, null, UserDTO.CountType.NONE);
+        };
+    }
+
+    private static Sort sort(String sortBy, String sortDir) {
+        return sortDir.equalsIgnoreCase("desc")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
+    }
 
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<User> userPage;
-
-        if (role != null) {
-            userPage = userRepository.findByRole(role, pageable);
-        } else if (active != null) {
-            userPage = userRepository.findByActive(active, pageable);
-        } else if (nameFilter != null && !nameFilter.isEmpty()) {
-            userPage = userRepository.findByNameContainingIgnoreCase(nameFilter, pageable);
-        } else {
-            userPage = userRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public UserDTO.UserListResponse searchUsers(String query, int page, int size) {
+        log.info("Searching users - query: {}, page: {}, size: {}", query, page, size);
+
+        String term = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (term.length() < MIN_SEARCH_LENGTH) {
+            throw new InvalidRequestException("Search query must be at least " + MIN_SEARCH_LENGTH + " characters");
         }
 
-        // Use MapStruct to convert Page to ListResponse
+        Page<User> userPage = userRepository.search(term, UserSpecifications.containsPattern(term), PageRequest.of(page, size));
+
         return userMapper.pageToListResponse(userPage);
     }
 
+    @Transactional(readOnly = true)
+    public UserDTO.UserListResponse getUsersByCursor(String cursor, int size, String sortBy, String sortDir,
+                                                     UserDTO.UserFilter filter) {
+        log.info("Fetching users by cursor - size: {}, sortBy: {}, sortDir: {}, filter: {}",
+                size, sortBy, sortDir, filter);
+
+        UserCursor.validateSortKey(sortBy);
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, sortBy);
+
+        ScrollPosition position = UserCursor.decode(cursor, sortBy, direction);
+        Window<User> window = userRepository.findBy(UserSpecifications.matching(filter),
+                query -> query.sortBy(sort).limit(size).scroll(position));
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? UserCursor.encode(window.getContent().get(window.size() - 1), sortBy, direction)
+                : null;
+
+        return userMapper.windowToListResponse(window, size, nextCursor);
+    }
+
+    @Transactional
     public UserDTO.UserResponse updateUser(Long id, UserDTO.UpdateUserRequest request) {
         log.info("Updating user with ID: {}", id);
+        UserOperationEvent jfrEvent = UserOperationEvent.start();
 
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.error("User not found with ID: {}", id);
-                    return new ResourceNotFoundException("User not found with ID: " + id);
-                });
-
-        // Check for email uniqueness if email is being changed
-        if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
-            if (userRepository.existsByEmail(request.getEmail())) {
-                log.error("User with email {} already exists", request.getEmail());
-                throw new DuplicateResourceException("User with email " + request.getEmail() + " already exists");
-            }
+        // One UPDATE ... RETURNING instead of loading the entity and flushing it, an email taken
+        // by another user surfaces as a conflict of this statement
+        Optional<UserDTO.UserResponse> updated;
+        try {
+            updated = userRepository.update(id, request);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmailOr(e, request.getEmail());
         }
+        UserDTO.UserResponse response = updated.orElseThrow(() -> {
+            log.error("User not found with ID: {}", id);
+            return new ResourceNotFoundException("User not found with ID: " + id);
+        });
+        emailFilter.add(response.getEmail());
+        log.info("User updated successfully with ID: {}", id);
+
+        cacheAfterCommit(response);
+
+        eventOutbox.append(UserEvent.createEvent(
+                id,
+                UserEvent.EventType.UPDATED.name(),
+                response,
+                "SYSTEM"
+        ));
+
+        jfrEvent.commit("update", id, 1);
+        return response;
+    }
 
-        userMapper.updateEntityFromRequest(request, user);
+    /**
+     * Partial update in one statement, guarded by the user's version instead of a pre-read
+     */
+    @Transactional
+    public UserDTO.UserResponse patchUser(Long id, UserDTO.PatchUserRequest request) {
+        log.info("Patching user with ID: {} at version: {}", id, request.getVersion());
+        UserOperationEvent jfrEvent = UserOperationEvent.start();
+
+        if (request.getName() == null && request.getEmail() == null && request.getPhone() == null
+                && request.getRole() == null && request.getActive() == null) {
+            throw new InvalidRequestException("Patch must change at least one field");
+        }
 
-        User updatedUser = userRepository.save(user);
-        log.info("User updated successfully with ID: {}", updatedUser.getId());
+        Optional<UserDTO.UserResponse> patched;
+        try {
+            patched = userRepository.patch(id, request);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmailOr(e, request.getEmail());
+        }
 
-        UserDTO.UserResponse response = userMapper.toResponse(updatedUser);
+        // Nothing matched id and version: only now tell a missing user from a stale version
+        UserDTO.UserResponse response = patched.orElseThrow(() -> {
+            if (!userRepository.existsById(id)) {
+                log.error("User not found with ID: {}", id);
+                return new ResourceNotFoundException("User not found with ID: " + id);
+            }
+            log.warn("Stale version {} for user with ID: {}", request.getVersion(), id);
+            return new StaleVersionException("User with ID " + id + " was modified since version " + request.getVersion());
+        });
 
-        try {
-            UserEvent event = UserEvent.createEvent(
-                    updatedUser.getId(),
-                    UserEvent.EventType.UPDATED.name(),
-                    response,
-                    "SYSTEM"
-            );
-            eventProducer.publishUserUpdatedEvent(event);
-        } catch (Exception e) {
-            log.error("Failed to publish user updated event for user ID: {}", updatedUser.getId(), e);
+        if (request.getEmail() != null) {
+            emailFilter.add(response.getEmail());
         }
+        cacheAfterCommit(response);
+        log.info("User patched successfully with ID: {}, version: {}", id, response.getVersion());
 
+        eventOutbox.append(UserEvent.createEvent(
+                id,
+                UserEvent.EventType.UPDATED.name(),
+                response,
+                "SYSTEM"
+        ));
+
+        jfrEvent.commit("patch", id, 1);
         return response;
     }
 
+    @Transactional
     public void deleteUser(Long id) {
         log.info("Deleting user with ID: {}", id);
+        UserOperationEvent jfrEvent = UserOperationEvent.start();
 
-        User user = userRepository.findById(id)
+        // One statement deletes the row and returns what the DELETED event carries
+        UserDTO.UserResponse response = userRepository.deleteReturning(id)
                 .orElseThrow(() -> {
                     log.error("User not found with ID: {}", id);
                     return new ResourceNotFoundException("User not found with ID: " + id);
                 });
 
-        UserDTO.UserResponse response = userMapper.toResponse(user);
-
-        userRepository.deleteById(id);
+        userCache.evict(id);
         log.info("User deleted successfully with ID: {}", id);
 
-        try {
-            UserEvent event = UserEvent.createEvent(
-                    id,
-                    UserEvent.EventType.DELETED.name(),
-                    response,
-                    "SYSTEM"
-            );
-            eventProducer.publishUserDeletedEvent(event);
-        } catch (Exception e) {
-            log.error("Failed to publish user deleted event for user ID: {}", id, e);
+        eventOutbox.append(UserEvent.createEvent(
+                id,
+                UserEvent.EventType.DELETED.name(),
+                response,
+                "SYSTEM"
+        ));
+
+        jfrEvent.commit("delete", id, 1);
+    }
+
+    /**
+     * Whether an email can still be registered
+     * The membership filter answers "never registered" without a query, everything else is checked
+     */
+    public boolean isEmailAvailable(String email) {
+        if (!emailFilter.mightContain(email)) {
+            return true;
+        }
+        return !userRepository.existsByEmail(email);
+    }
+
+    /**
+     * Evict now and cache the written user only once the transaction committed,
+     * so a rollback (outbox insert, commit) never leaves its value cached
+     */
+    private void cacheAfterCommit(UserDTO.UserResponse response) {
+        userCache.evict(response.getId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userCache.put(response);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userCache.put(response);
+            }
+        });
+    }
+
+    /**
+     * Translate a unique violation on insert/update into a duplicate email error,
+     * other integrity errors are rethrown (mapped to 400 by GlobalExceptionHandler)
+     */
+    private RuntimeException duplicateEmailOr(DataIntegrityViolationException e, String email) {
+        Throwable cause = e;
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                log.error("User with email {} already exists", email);
+                return new DuplicateResourceException("User with email " + email + " already exists");
+            }
+            cause = cause.getCause();
         }
+        return e;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+-- PostgreSQL-only objects that Hibernate's ddl-auto cannot express.
+-- Runs after Hibernate (spring.jpa.defer-datasource-initialization=true), must stay idempotent.
+
+-- Trigram indexes for substring search on name, email and phone.
+-- They serve both LOWER(name) LIKE '%x%' (nameFilter) and the /search endpoint.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_phone_trgm ON users USING gin (phone gin_trgm_ops);
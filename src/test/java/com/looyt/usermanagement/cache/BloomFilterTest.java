@@ -0,0 +1,37 @@
+package com.looyt.usermanagement.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void insertedValues_AreAlwaysReported() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void falsePositiveRate_StaysNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
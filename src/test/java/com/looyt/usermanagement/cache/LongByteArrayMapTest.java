@@ -0,0 +1,43 @@
+package com.looyt.usermanagement.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongByteArrayMapTest {
+
+    @Test
+    void randomPutsAndRemoves_MatchHashMap() {
+        LongByteArrayMap map = new LongByteArrayMap(4);
+        Map<Long, byte[]> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // Few distinct keys for many operations: long probe chains, rehashes and removals inside them
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertSame(expected.remove(key), map.remove(key));
+            } else {
+                byte[] value = {(byte) i};
+                assertSame(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 1; key <= 5_000; key++) {
+            assertSame(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    void put_RejectsNonPositiveKeys() {
+        LongByteArrayMap map = new LongByteArrayMap(4);
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, new byte[0]));
+    }
+}
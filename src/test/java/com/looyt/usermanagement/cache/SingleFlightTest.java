@@ -0,0 +1,39 @@
+package com.looyt.usermanagement.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void window_SharesACompletedResultUntilItExpires() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", Duration.ofMillis(200), registry);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, flight.load("key", loads::incrementAndGet));
+        assertEquals(1, flight.load("key", loads::incrementAndGet));
+        assertEquals(2, flight.load("other", loads::incrementAndGet));
+
+        Thread.sleep(400);
+        assertEquals(3, flight.load("key", loads::incrementAndGet));
+        assertEquals(1, registry.get("user.coalescing.requests").tag("result", "coalesced").counter().count());
+    }
+
+    @Test
+    void failure_IsNotSharedWithLaterCallers() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", Duration.ofMinutes(1), registry);
+
+        assertThrows(IllegalStateException.class, () -> flight.load("key", () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        assertEquals(7, flight.load("key", () -> 7));
+    }
+}
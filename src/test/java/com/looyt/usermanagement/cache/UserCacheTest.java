@@ -0,0 +1,61 @@
+package com.looyt.usermanagement.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final UserCache userCache = new UserCache(true, 100, Duration.ofMinutes(1), objectMapper, new SimpleMeterRegistry());
+
+    private static UserDTO.UserResponse user(long version) {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        return new UserDTO.UserResponse(1L, "Jane", "jane@example.com", "+1234567890",
+                User.UserRole.USER, true, now, now, version);
+    }
+
+    @Test
+    void serialize_KeepsJsonWithTheEntryUntilTheUserChanges() throws Exception {
+        UserDTO.UserResponse v1 = user(1);
+        userCache.put(v1);
+        assertTrue(userCache.getSerialized(1L).isEmpty());
+
+        UserCache.SerializedUser serialized = userCache.serialize(v1);
+
+        assertEquals("\"1-1\"", serialized.etag());
+        assertArrayEquals(objectMapper.writeValueAsBytes(v1), serialized.json());
+        assertSame(serialized, userCache.getSerialized(1L).orElseThrow());
+
+        userCache.put(user(2));
+        assertTrue(userCache.getSerialized(1L).isEmpty());
+        userCache.evict(1L);
+        assertTrue(userCache.get(1L).isEmpty());
+    }
+
+    @Test
+    void serialize_OfAReplacedResponseDoesNotOverwriteTheNewerEntry() {
+        UserDTO.UserResponse v1 = user(1);
+        userCache.put(v1);
+        userCache.put(user(2)); // Concurrent update between the read and the serialization
+
+        UserCache.SerializedUser stale = userCache.serialize(v1);
+
+        assertEquals("\"1-1\"", stale.etag());
+        assertTrue(new String(stale.json(), StandardCharsets.UTF_8).contains("\"version\":1"));
+        assertTrue(userCache.getSerialized(1L).isEmpty());
+        assertEquals(2L, userCache.get(1L).orElseThrow().getVersion());
+    }
+}
@@ -0,0 +1,49 @@
+package com.looyt.usermanagement.cache;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCountCacheTest {
+
+    private final UserCountCache countCache = new UserCountCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    private static UserDTO.UserFilter filter() {
+        UserDTO.UserFilter filter = new UserDTO.UserFilter();
+        filter.setRole(User.UserRole.ADMIN);
+        return filter;
+    }
+
+    @Test
+    void get_CountsOnceUntilEvicted() {
+        AtomicInteger counts = new AtomicInteger();
+
+        assertEquals(5, countCache.get(filter(), key -> (long) counts.incrementAndGet() + 4));
+        assertEquals(5, countCache.get(filter(), key -> (long) counts.incrementAndGet() + 4));
+        assertEquals(1, counts.get());
+
+        countCache.evictAll();
+
+        assertEquals(6, countCache.get(filter(), key -> (long) counts.incrementAndGet() + 4));
+        assertEquals(2, counts.get());
+    }
+
+    @Test
+    void get_DoesNotKeepACountThatAnEvictionOverlapped() {
+        // The write behind the eviction landed while the first count ran, so 5 is already stale
+        long first = countCache.get(filter(), key -> {
+            countCache.evictAll();
+            return 5L;
+        });
+
+        assertEquals(5, first);
+        assertEquals(6, countCache.get(filter(), key -> 6L));
+        assertEquals(6, countCache.get(filter(), key -> 7L));
+    }
+}
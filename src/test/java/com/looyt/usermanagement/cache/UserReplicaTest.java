@@ -0,0 +1,94 @@
+package com.looyt.usermanagement.cache;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserReplicaTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserReplica replica = new UserReplica(true, Duration.ofSeconds(5));
+
+    @BeforeEach
+    void setUp() {
+        replica.bindTo(meterRegistry);
+    }
+
+    private static UserEvent snapshot(long id, String name, User.UserRole role, boolean active) {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 0, 0).plusDays(id);
+        return new UserEvent(id, "UPDATED", name, name.toLowerCase() + "@example.com", "+1234567890", role,
+                active, 3L, createdAt, createdAt.plusHours(1), LocalDateTime.now(), "SYSTEM");
+    }
+
+    @Test
+    void apply_KeepsLatestStateAndRemovesTombstones() {
+        Map<Long, UserEvent> batch = new HashMap<>();
+        batch.put(1L, snapshot(1, "Ann", User.UserRole.ADMIN, true));
+        batch.put(2L, snapshot(2, "Bob", User.UserRole.USER, true));
+        replica.apply(batch);
+
+        Map<Long, UserEvent> next = new HashMap<>();
+        next.put(1L, snapshot(1, "Anna", User.UserRole.ADMIN, false));
+        next.put(2L, null);
+        replica.apply(next);
+
+        UserDTO.UserResponse ann = replica.get(1L).orElseThrow();
+        assertEquals("Anna", ann.getName());
+        assertEquals("anna@example.com", ann.getEmail());
+        assertEquals(User.UserRole.ADMIN, ann.getRole());
+        assertFalse(ann.getActive());
+        assertEquals(3L, ann.getVersion());
+        assertEquals(LocalDateTime.of(2026, 1, 2, 0, 0), ann.getCreatedAt());
+        assertEquals(LocalDateTime.of(2026, 1, 2, 1, 0), ann.getUpdatedAt());
+        assertTrue(replica.get(2L).isEmpty());
+        assertEquals(1, replica.size());
+        assertTrue(meterRegistry.get("user.replica.size").gauge().value() > 0);
+    }
+
+    @Test
+    void isServing_OnlyOnceEveryPartitionCaughtUpAndWhileFresh() {
+        long now = System.currentTimeMillis();
+        replica.markBackfilled();
+        assertFalse(replica.isServing());
+        assertTrue(Double.isNaN(meterRegistry.get("user.replica.staleness").gauge().value()));
+
+        replica.updatePosition(Map.of(0, now, 1, -1L));
+        assertFalse(replica.isServing());
+
+        replica.updatePosition(Map.of(0, now, 1, now - 1_000));
+        assertTrue(replica.isServing());
+        assertTrue(replica.staleness() >= 1_000);
+
+        // Only an old record applied since, the partition keeps its later position
+        replica.updatePosition(Map.of(0, now - 60_000, 1, now));
+        assertTrue(replica.isServing());
+
+        UserReplica lagging = new UserReplica(true, Duration.ofSeconds(5));
+        lagging.markBackfilled();
+        lagging.updatePosition(Map.of(0, now - 60_000));
+        assertFalse(lagging.isServing());
+    }
+
+    @Test
+    void isServing_NotBeforeBackfillAndOnlyWithPositionsReportedAfterIt() {
+        long now = System.currentTimeMillis();
+        replica.updatePosition(Map.of(0, now));
+        assertFalse(replica.isServing());
+
+        replica.markBackfilled();
+        assertFalse(replica.isServing());
+
+        replica.updatePosition(Map.of(0, now));
+        assertTrue(replica.isServing());
+    }
+}
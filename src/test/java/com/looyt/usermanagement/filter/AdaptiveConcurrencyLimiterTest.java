@@ -0,0 +1,70 @@
+package com.looyt.usermanagement.filter;
+
+import com.looyt.usermanagement.filter.AdaptiveConcurrencyLimiter.Partition;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    // Every sample is its own window, so the limit moves on each release
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, 4, 200, 0.3, 0, 1);
+    }
+
+    // Fills the limit with reads, then completes them all with the same latency
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttMillis, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire(Partition.READ)) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(Partition.READ, TimeUnit.MILLISECONDS.toNanos(rttMillis), false);
+            }
+        }
+    }
+
+    @Test
+    void limit_GrowsAtStableLatencyAndShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+
+        saturate(limiter, 10, 20);
+        int grown = limiter.getLimit();
+        assertTrue(grown > 20, "limit should grow while latency is stable, was " + grown);
+
+        saturate(limiter, 60, 20);
+        assertTrue(limiter.getLimit() < grown / 2, "limit should shrink as latency rises, was " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    void writes_KeepTheirShareWhileReadsSaturateTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        int reads = 0;
+        while (limiter.tryAcquire(Partition.READ)) {
+            reads++;
+        }
+        assertEquals(10, reads); // Borrowed the unused write share
+
+        assertTrue(limiter.tryAcquire(Partition.WRITE));
+        assertTrue(limiter.tryAcquire(Partition.WRITE));
+        assertTrue(limiter.tryAcquire(Partition.WRITE));
+        assertFalse(limiter.tryAcquire(Partition.WRITE));
+        assertEquals(3, limiter.getInFlight(Partition.WRITE));
+    }
+
+    @Test
+    void dropped_BacksOffTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        assertTrue(limiter.tryAcquire(Partition.WRITE));
+        limiter.release(Partition.WRITE, TimeUnit.SECONDS.toNanos(30), true);
+
+        assertEquals(9, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight(Partition.WRITE));
+    }
+}
@@ -0,0 +1,88 @@
+package com.looyt.usermanagement.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(true, 1, 1, 1, 0.3, 1, Duration.ofSeconds(2),
+            new ObjectMapper().registerModule(new JavaTimeModule()), registry);
+
+    @Test
+    void requestOverTheLimit_IsRejectedWithRetryAfter() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        // The second read arrives while the first still holds the only read permit
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/1"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/2"), rejected,
+                        (innerRequest, innerResponse) -> fail("second read should not reach the controller")));
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many concurrent requests"));
+        assertEquals(1, registry.get("user.http.concurrency.rejected").tag("partition", "read").counter().count());
+        assertEquals(0, registry.get("user.http.concurrency.in-flight").tag("partition", "read").gauge().value());
+    }
+
+    @Test
+    void healthAndActuator_AreNotLimited() throws Exception {
+        int[] passed = {0};
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/1"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/health"),
+                            new MockHttpServletResponse(), (r, s) -> passed[0]++);
+                    filter.doFilter(new MockHttpServletRequest("GET", "/actuator/prometheus"),
+                            new MockHttpServletResponse(), (r, s) -> passed[0]++);
+                });
+
+        assertEquals(2, passed[0]);
+    }
+
+    @Test
+    void bulkRequests_UseTheirOwnPermits() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        int[] passed = {0};
+
+        // A running import takes the only bulk permit but none of the adaptive read permits
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/users/import"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/1"),
+                            new MockHttpServletResponse(), (r, s) -> passed[0]++);
+                    filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/users/bulk-delete"), rejected,
+                            (r, s) -> fail("second bulk request should not reach the controller"));
+                });
+
+        assertEquals(1, passed[0]);
+        assertEquals(503, rejected.getStatus());
+        assertEquals(1, registry.get("user.http.concurrency.rejected").tag("partition", "bulk").counter().count());
+        assertEquals(0, registry.get("user.http.concurrency.in-flight").tag("partition", "bulk").gauge().value());
+    }
+
+    @Test
+    void export_HoldsBulkPermitUntilTheStreamCompletes() throws Exception {
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/api/v1/users/export");
+        export.setAsyncSupported(true);
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        // The controller returns once streaming started, the response is written later
+        filter.doFilter(export, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/users/import"), rejected,
+                (r, s) -> fail("bulk request should wait for the running export"));
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals(1, registry.get("user.http.concurrency.in-flight").tag("partition", "bulk").gauge().value());
+
+        export.getAsyncContext().complete();
+
+        assertEquals(0, registry.get("user.http.concurrency.in-flight").tag("partition", "bulk").gauge().value());
+    }
+}
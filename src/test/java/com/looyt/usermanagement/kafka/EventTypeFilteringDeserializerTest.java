@@ -0,0 +1,53 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventTypeFilteringDeserializerTest {
+
+    private static final byte[] CREATED_PAYLOAD =
+            "{\"userId\":1,\"eventType\":\"CREATED\",\"name\":\"John\"}".getBytes(StandardCharsets.UTF_8);
+
+    private EventTypeFilteringDeserializer deserializer;
+
+    @BeforeEach
+    void setUp() {
+        deserializer = new EventTypeFilteringDeserializer();
+        deserializer.configure(Map.of(EventTypeFilteringDeserializer.TYPE_FILTER_CONFIG, "UPDATED"), false);
+    }
+
+    private RecordHeaders headers(String type) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(UserEventTopics.EVENT_TYPE_HEADER, type.getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+
+    @Test
+    void otherTypeHeader_SkipsPayloadParsing() {
+        byte[] notJson = "not json".getBytes(StandardCharsets.UTF_8);
+
+        assertNull(deserializer.deserialize("user-events", headers("CREATED"), notJson));
+    }
+
+    @Test
+    void matchingTypeHeader_DeserializesPayload() {
+        byte[] payload = "{\"userId\":1,\"eventType\":\"UPDATED\"}".getBytes(StandardCharsets.UTF_8);
+
+        UserEvent event = deserializer.deserialize("user-events", headers("UPDATED"), payload);
+
+        assertNotNull(event);
+        assertEquals(1L, event.getUserId());
+    }
+
+    @Test
+    void missingHeader_FiltersOnParsedType() {
+        assertNull(deserializer.deserialize("user-events", new RecordHeaders(), CREATED_PAYLOAD));
+    }
+}
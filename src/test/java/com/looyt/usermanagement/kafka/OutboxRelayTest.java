@@ -0,0 +1,128 @@
+package com.looyt.usermanagement.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.model.OutboxEvent;
+import com.looyt.usermanagement.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private UserEventProducer eventProducer;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxRepository, eventProducer, transactionTemplate, objectMapper,
+                meterRegistry, 10, Duration.ofSeconds(1), Duration.ofMinutes(1));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private OutboxEvent row(long id, long userId, String type) throws Exception {
+        UserEvent event = new UserEvent(userId, type, "John", "john@example.com", "+1234567890",
+                null, true, 0L, null, null, LocalDateTime.now(), "SYSTEM");
+        return new OutboxEvent(id, userId, type, objectMapper.writeValueAsString(event), LocalDateTime.now());
+    }
+
+    @Test
+    void relay_DeletesAcknowledgedEvents() throws Exception {
+        when(outboxRepository.tryAcquireLease(anyString(), anyLong())).thenReturn(1);
+        when(outboxRepository.findNextBatch(anyInt())).thenReturn(List.of(row(1, 1, "CREATED"), row(2, 2, "CREATED")));
+        when(eventProducer.publish(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relay();
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void relay_FailedSend_HoldsBackLaterEventsOfSameUser() throws Exception {
+        when(outboxRepository.tryAcquireLease(anyString(), anyLong())).thenReturn(1);
+        when(outboxRepository.findNextBatch(anyInt()))
+                .thenReturn(List.of(row(1, 1, "CREATED"), row(2, 2, "CREATED"), row(3, 1, "UPDATED")));
+        when(eventProducer.publish(argThat(event -> event != null && event.getUserId() == 1L && "CREATED".equals(event.getEventType()))))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(eventProducer.publish(argThat(event -> event != null && !(event.getUserId() == 1L && "CREATED".equals(event.getEventType())))))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relay();
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(2L));
+    }
+
+    @Test
+    void relay_LeaseHeldElsewhere_SendsNothing() {
+        when(outboxRepository.tryAcquireLease(anyString(), anyLong())).thenReturn(0);
+
+        relay.relay();
+
+        verifyNoInteractions(eventProducer);
+        verify(outboxRepository, never()).findNextBatch(anyInt());
+    }
+
+    @Test
+    void relay_RefreshesBacklogMetricsWithoutLeaseAndAfterFailure() {
+        when(outboxRepository.tryAcquireLease(anyString(), anyLong()))
+                .thenReturn(0)
+                .thenThrow(new IllegalStateException("database down"));
+        when(outboxRepository.count()).thenReturn(7L, 9L);
+        when(outboxRepository.findOldestCreatedAt()).thenReturn(LocalDateTime.now().minusSeconds(30));
+
+        relay.relay();
+        assertEquals(7, meterRegistry.get("user.outbox.backlog").gauge().value());
+
+        relay.relay();
+        assertEquals(9, meterRegistry.get("user.outbox.backlog").gauge().value());
+        assertTrue(meterRegistry.get("user.outbox.lag").gauge().value() >= 30);
+    }
+
+    @Test
+    void relay_UnacknowledgedSends_ShareOneDeadline() throws Exception {
+        when(outboxRepository.tryAcquireLease(anyString(), anyLong())).thenReturn(1);
+        when(outboxRepository.findNextBatch(anyInt()))
+                .thenReturn(List.of(row(1, 1, "CREATED"), row(2, 2, "CREATED"), row(3, 3, "CREATED")));
+        when(eventProducer.publish(any())).thenAnswer(invocation -> new CompletableFuture<Void>());
+
+        long start = System.nanoTime();
+        relay.relay();
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of());
+        verify(outboxRepository).releaseLease(anyString());
+    }
+}
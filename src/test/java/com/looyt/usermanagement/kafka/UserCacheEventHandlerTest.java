@@ -0,0 +1,51 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.cache.UserCache;
+import com.looyt.usermanagement.dto.UserEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class UserCacheEventHandlerTest {
+
+    private UserCache userCache;
+    private UserCacheEventHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        userCache = mock(UserCache.class);
+        handler = new UserCacheEventHandler(userCache);
+    }
+
+    private ConsumerRecord<String, UserEvent> record(long offset, long userId, UserEvent.EventType type) {
+        UserEvent event = new UserEvent();
+        event.setUserId(userId);
+        event.setEventType(type.name());
+        return new ConsumerRecord<>("user-events", 0, offset, String.valueOf(userId), event);
+    }
+
+    @Test
+    void handleBatch_EvictsEachChangedUserOnce() {
+        handler.handleBatch(List.of(
+                record(0, 1L, UserEvent.EventType.UPDATED),
+                record(1, 1L, UserEvent.EventType.UPDATED),
+                record(2, 2L, UserEvent.EventType.DELETED),
+                record(3, 3L, UserEvent.EventType.CREATED)
+        ));
+
+        verify(userCache, times(1)).evict(Set.of(1L, 2L));
+    }
+
+    @Test
+    void handleBatch_OnlyCreatedEvents_DoesNotTouchCache() {
+        handler.handleBatch(List.of(record(0, 3L, UserEvent.EventType.CREATED)));
+
+        verify(userCache, never()).evict(anyCollection());
+    }
+}
@@ -0,0 +1,66 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.model.User;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventBinaryCodecTest {
+
+    private static UserEvent event() {
+        return new UserEvent(42L, "UPDATED", "Zoë", "zoe@example.com", "+1234567890", User.UserRole.ADMIN,
+                false, 7L, LocalDateTime.of(2025, 11, 2, 8, 0), LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_456_000),
+                LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_456_000), "SYSTEM");
+    }
+
+    @Test
+    void encode_RoundTripsEveryFieldInFewerBytesThanJson() {
+        UserEventSerializer serializer = new UserEventSerializer();
+        serializer.configure(Map.of(UserEventSerializer.BINARY_TOPICS_CONFIG, "user-events"), false);
+
+        byte[] binary = serializer.serialize("user-events", event());
+        byte[] json = serializer.serialize("user-created", event());
+
+        assertEquals(event(), UserEventBinaryCodec.decode(binary));
+        assertEquals('{', json[0]);
+        assertTrue(binary.length * 2 < json.length, binary.length + " vs " + json.length);
+    }
+
+    @Test
+    void decode_SkipsFieldsAddedByNewerWriters() {
+        byte[] encoded = UserEventBinaryCodec.encode(event());
+        // Field 15 as a string and field 16 (two-byte tag) as a varint, unknown to this reader
+        byte[] extra = {(byte) (15 << 3 | 2), 3, 'a', 'b', 'c', (byte) 0x80, 0x01, (byte) 0x96, 0x01};
+        byte[] extended = Arrays.copyOf(encoded, encoded.length + extra.length);
+        System.arraycopy(extra, 0, extended, encoded.length, extra.length);
+
+        assertEquals(event(), UserEventBinaryCodec.decode(extended));
+    }
+
+    @Test
+    void decode_RejectsNewerSchemaVersionAndTruncatedRecords() {
+        byte[] encoded = UserEventBinaryCodec.encode(event());
+        byte[] newer = encoded.clone();
+        newer[1] = UserEventBinaryCodec.SCHEMA_VERSION + 1;
+
+        assertThrows(SerializationException.class, () -> UserEventBinaryCodec.decode(newer));
+        assertThrows(SerializationException.class,
+                () -> UserEventBinaryCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+    }
+
+    @Test
+    void deserializer_ReadsBothFormats() {
+        UserEventDeserializer deserializer = new UserEventDeserializer();
+        byte[] json = "{\"userId\":1,\"eventType\":\"DELETED\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("DELETED", deserializer.deserialize("user-events", json).getEventType());
+        assertEquals(event(), deserializer.deserialize("user-events", UserEventBinaryCodec.encode(event())));
+    }
+}
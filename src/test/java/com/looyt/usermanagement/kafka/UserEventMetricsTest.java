@@ -0,0 +1,58 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UserEventMetrics metrics = new UserEventMetrics(registry, "users", "host-1");
+
+    private static UserEvent event(LocalDateTime timestamp) {
+        UserEvent event = new UserEvent();
+        event.setUserId(1L);
+        event.setEventType("UPDATED");
+        event.setTimestamp(timestamp);
+        return event;
+    }
+
+    @Test
+    void send_TracksInFlightAndTagsOutcome() {
+        UserEvent event = event(LocalDateTime.now().minusSeconds(2));
+
+        long ok = metrics.sendStarted("user-events");
+        long failed = metrics.sendStarted("user-events");
+        assertEquals(2, registry.get("user.events.producer.in-flight").tag("topic", "user-events").gauge().value());
+
+        metrics.sendCompleted("user-events", event, ok, null);
+        metrics.sendCompleted("user-events", event, failed, new RuntimeException("broker down"));
+
+        assertEquals(0, registry.get("user.events.producer.in-flight").gauge().value());
+        assertEquals(1, registry.get("user.events.producer.send").tags("type", "UPDATED", "outcome", "failure").timer().count());
+        assertTrue(registry.get("user.events.producer.end-to-end").timer().totalTime(TimeUnit.SECONDS) >= 2);
+        assertEquals(1, registry.get("user.events.producer.end-to-end").timer().count());
+    }
+
+    @Test
+    void consumerEndToEnd_ClampsClockSkewToZero() {
+        metrics.recordEndToEnd("users", "user-events", event(LocalDateTime.now().plusMinutes(5)));
+
+        assertEquals(0, registry.get("user.events.consumer.end-to-end").tag("listener", "events").timer().totalTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void consumerMeters_TagLogicalListenerInsteadOfInstanceGroup() {
+        metrics.batchProcessed("users-cache-host-1", "user-events", 3, System.nanoTime());
+        metrics.recordProcessed("users-created", "user-created", event(LocalDateTime.now()), System.nanoTime());
+
+        assertEquals(3, registry.get("user.events.consumer.batch.size").tag("listener", "cache").summary().totalAmount());
+        assertEquals(1, registry.get("user.events.consumer.process").tag("listener", "created").timer().count());
+        assertTrue(registry.find("user.events.consumer.batch.process").tag("listener", "users-cache-host-1").meters().isEmpty());
+    }
+}
@@ -0,0 +1,125 @@
+package com.looyt.usermanagement.kafka;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.dto.UserEvent;
+import com.looyt.usermanagement.mapper.UserMapper;
+import com.looyt.usermanagement.model.SnapshotBackfillProgress;
+import com.looyt.usermanagement.model.User;
+import com.looyt.usermanagement.repository.OutboxEventRepository;
+import com.looyt.usermanagement.repository.SnapshotBackfillProgressRepository;
+import com.looyt.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSnapshotBackfillTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SnapshotBackfillProgressRepository progressRepository;
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private UserEventOutbox eventOutbox;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private UserEventTopics topics;
+
+    private UserSnapshotBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new UserSnapshotBackfill(userRepository, progressRepository, outboxRepository, eventOutbox,
+                userMapper, transactionTemplate, topics, true, 2);
+        lenient().when(topics.isSnapshotsEnabled()).thenReturn(true);
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User" + id);
+        return user;
+    }
+
+    @Test
+    void run_QueuesOneChunkOfUsersPerRunAsSnapshotEvents() {
+        SnapshotBackfillProgress progress = new SnapshotBackfillProgress(SnapshotBackfillProgress.ID, 0L, null, null, null);
+        when(progressRepository.lockById(SnapshotBackfillProgress.ID)).thenReturn(Optional.of(progress));
+        when(userRepository.findAfterIdForShare(0L, Limit.of(2))).thenReturn(List.of(user(1), user(2)));
+        when(userRepository.findAfterIdForShare(2L, Limit.of(2))).thenReturn(List.of(user(3)));
+        when(userRepository.findAfterIdForShare(3L, Limit.of(2))).thenReturn(List.of());
+        when(userMapper.toResponse(any())).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            UserDTO.UserResponse response = new UserDTO.UserResponse();
+            response.setId(user.getId());
+            response.setName(user.getName());
+            return response;
+        });
+        when(outboxRepository.findMaxId()).thenReturn(42L);
+
+        backfill.run();
+        verify(eventOutbox, times(1)).appendAll(any());
+        assertEquals(2L, progress.getLastUserId());
+
+        backfill.run();
+        backfill.run();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserEvent>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(eventOutbox, times(2)).appendAll(chunks.capture());
+        assertEquals(List.of(1L, 2L, 3L), chunks.getAllValues().stream().flatMap(List::stream).map(UserEvent::getUserId).toList());
+        assertTrue(chunks.getAllValues().stream().flatMap(List::stream)
+                .allMatch(event -> UserEvent.EventType.SNAPSHOT.name().equals(event.getEventType())));
+        assertEquals(3L, progress.getLastUserId());
+        assertEquals(42L, progress.getLastOutboxId());
+        assertNotNull(progress.getCopiedAt());
+        assertNull(progress.getCompletedAt());
+    }
+
+    @Test
+    void run_CompletesOnlyOnceQueuedSnapshotsWereRelayed() {
+        SnapshotBackfillProgress progress = new SnapshotBackfillProgress(SnapshotBackfillProgress.ID, 3L, 42L,
+                LocalDateTime.now(), null);
+        when(progressRepository.lockById(SnapshotBackfillProgress.ID)).thenReturn(Optional.of(progress));
+        when(outboxRepository.existsByIdLessThanEqual(42L)).thenReturn(true, false);
+
+        backfill.run();
+        assertNull(progress.getCompletedAt());
+
+        backfill.run();
+        assertNotNull(progress.getCompletedAt());
+        verify(userRepository, never()).findAfterIdForShare(anyLong(), any());
+        verifyNoInteractions(eventOutbox);
+    }
+}
@@ -0,0 +1,68 @@
+package com.looyt.usermanagement.monitoring;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.exception.InvalidRequestException;
+import com.looyt.usermanagement.model.User;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderEndpointTest {
+
+    private final FlightRecorderEndpoint endpoint = new FlightRecorderEndpoint(Duration.ofMinutes(1), Duration.ofMinutes(10));
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    void recordsUserOperationsUntilStopped() throws Exception {
+        WebEndpointResponse<Map<String, Object>> started = endpoint.start(null, "default");
+        assertEquals(WebEndpointResponse.STATUS_OK, started.getStatus());
+        String name = (String) started.getBody().get("name");
+
+        UserDTO.UserFilter filter = new UserDTO.UserFilter(User.UserRole.ADMIN, true, null, null, null, null, null);
+        UserOperationEvent.start().commit("list", null, filter, 20);
+        UserOperationEvent.start().commit("get", 42L, 1);
+        UserEventSendEvent.start().commit("user-events", "CREATED", 42L, 3, 7L, true);
+
+        // Still running: a second start conflicts and the file is not ready yet
+        assertEquals(HttpStatus.CONFLICT.value(), endpoint.start(null, null).getStatus());
+        assertEquals(HttpStatus.CONFLICT.value(), endpoint.download(name).getStatus());
+
+        endpoint.stop();
+        WebEndpointResponse<Resource> download = endpoint.download(name);
+        assertEquals(WebEndpointResponse.STATUS_OK, download.getStatus());
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(download.getBody().getFile().toPath());
+        List<String> operations = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.looyt.usermanagement.UserOperation"))
+                .map(event -> event.getString("operation") + ":" + event.getLong("userId")
+                        + ":" + event.getString("filter") + ":" + event.getInt("rows"))
+                .toList();
+        assertTrue(operations.containsAll(List.of("list:0:role,active:20", "get:42:null:1")), operations.toString());
+        List<String> sends = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.looyt.usermanagement.UserEventSend"))
+                .map(event -> event.getString("topic") + ":" + event.getInt("partition") + ":" + event.getLong("offset"))
+                .toList();
+        assertTrue(sends.contains("user-events:3:7"), sends.toString());
+    }
+
+    @Test
+    void rejectsUnknownSettingsAndTooLongDurations() {
+        assertThrows(InvalidRequestException.class, () -> endpoint.start(null, "everything"));
+        assertThrows(InvalidRequestException.class, () -> endpoint.start(Duration.ofHours(1), null));
+        assertEquals("NONE", endpoint.status().get("state"));
+    }
+}
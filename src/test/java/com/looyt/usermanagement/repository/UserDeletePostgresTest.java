@@ -0,0 +1,95 @@
+package com.looyt.usermanagement.repository;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DELETE ... RETURNING paths, which only PostgreSQL supports
+ * Needs Docker, skipped otherwise
+ */
+@Import(SimpleMeterRegistry.class)
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class UserDeletePostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPhone("+123456789" + i);
+            user.setActive(i % 2 == 0);
+            userRepository.save(user);
+        }
+        userRepository.flush();
+    }
+
+    @Test
+    void deleteReturning_ReturnsDeletedRowOnce() {
+        User user = userRepository.findByEmail("user1@example.com").orElseThrow();
+
+        UserDTO.UserResponse deleted = userRepository.deleteReturning(user.getId()).orElseThrow();
+
+        assertEquals(user.getEmail(), deleted.getEmail());
+        assertEquals(user.getVersion(), deleted.getVersion());
+        assertTrue(userRepository.deleteReturning(user.getId()).isEmpty());
+    }
+
+    @Test
+    void deleteReturning_DeletesExistingIdsOfTheArray() {
+        User first = userRepository.findByEmail("user1@example.com").orElseThrow();
+        User second = userRepository.findByEmail("user2@example.com").orElseThrow();
+
+        List<UserDTO.UserResponse> deleted = userRepository.deleteReturning(List.of(first.getId(), -1L, second.getId()));
+
+        assertEquals(List.of(first.getId(), second.getId()),
+                deleted.stream().map(UserDTO.UserResponse::getId).sorted().toList());
+        assertTrue(userRepository.deleteReturning(List.of(first.getId())).isEmpty());
+    }
+
+    @Test
+    void deleteMatching_DeletesUpToLimitOfMatchingRows() {
+        UserDTO.UserFilter inactive = new UserDTO.UserFilter();
+        inactive.setActive(false);
+
+        List<UserDTO.UserResponse> first = userRepository.deleteMatching(inactive, 1);
+        List<UserDTO.UserResponse> rest = userRepository.deleteMatching(inactive, 10);
+
+        assertEquals(1, first.size());
+        assertEquals(1, rest.size());
+        assertTrue(rest.get(0).getId() > first.get(0).getId());
+        assertEquals(3, userRepository.count());
+    }
+}
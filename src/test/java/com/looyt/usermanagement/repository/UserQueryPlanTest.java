@@ -0,0 +1,134 @@
+package com.looyt.usermanagement.repository;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Asserts that the common listing filter combinations are served by the composite indexes
+ * The SQL Hibernate generates for UserSpecifications.matching is captured and EXPLAINed with
+ * the filter's values, so the plan is the one the listing endpoint gets
+ * Needs Docker, skipped otherwise
+ */
+@Import(SimpleMeterRegistry.class)
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.use_sql_comments=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.looyt.usermanagement.repository.UserQueryPlanTest$CapturingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class UserQueryPlanTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    /**
+     * Records the statements Hibernate prepares
+     */
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void loadUsers() {
+        jdbcTemplate.execute("TRUNCATE users");
+        jdbcTemplate.execute("""
+                INSERT INTO users (name, email, phone, role, active, created_at, updated_at)
+                SELECT 'User ' || g, 'user' || g || '@example.com', '+1' || lpad(g::text, 10, '0'),
+                       (ARRAY['USER', 'USER', 'USER', 'USER', 'USER', 'USER', 'USER', 'USER', 'ADMIN', 'MODERATOR'])[1 + g % 10],
+                       g % 20 <> 0,
+                       TIMESTAMP '2024-01-01' + (g || ' minutes')::interval,
+                       TIMESTAMP '2024-01-01' + (g || ' minutes')::interval
+                FROM generate_series(1, 200000) g
+                """);
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "role + active    | USER  | false |                  |                  |                  |                  | id        | idx_users_role_active_id",
+            "active           |       | false |                  |                  |                  |                  | id        | idx_users_active_id",
+            "created range    |       |       | 2024-03-01T00:00 | 2024-03-02T00:00 |                  |                  | createdAt | idx_users_created_at_id",
+            "updated range    |       |       |                  |                  | 2024-03-01T00:00 | 2024-03-02T00:00 | updatedAt | idx_users_updated_at_id",
+            "role + created   | ADMIN |       | 2024-03-01T00:00 | 2024-03-02T00:00 |                  |                  | createdAt | idx_users_role_created_at_id",
+            "active + created |       | false | 2024-03-01T00:00 | 2024-03-02T00:00 |                  |                  | createdAt | idx_users_active_created_at_id"
+    })
+    void filterCombination_UsesCompositeIndex(String combination, User.UserRole role, Boolean active,
+                                              LocalDateTime createdFrom, LocalDateTime createdTo,
+                                              LocalDateTime updatedFrom, LocalDateTime updatedTo,
+                                              String sortBy, String expectedIndex) {
+        UserDTO.UserFilter filter = new UserDTO.UserFilter(role, active, null, createdFrom, createdTo, updatedFrom, updatedTo);
+
+        CapturingInspector.STATEMENTS.clear();
+        userRepository.findResponses(UserSpecifications.matching(filter), PageRequest.of(0, PAGE_SIZE, Sort.by(sortBy)));
+        String sql = CapturingInspector.STATEMENTS.stream()
+                .filter(statement -> !statement.contains("count("))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No listing query was issued"));
+
+        // matching and toSqlWhere bind the same values in the same order, the rest is the page window
+        List<Object> args = new ArrayList<>();
+        UserSpecifications.toSqlWhere(filter, args);
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        assertTrue(placeholders >= args.size() && placeholders <= args.size() + 2,
+                () -> "Unexpected parameters in " + sql);
+        if (placeholders == args.size() + 2) {
+            args.add(0);
+        }
+        if (placeholders > args.size()) {
+            args.add(PAGE_SIZE);
+        }
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args.toArray()));
+
+        assertTrue(plan.contains(expectedIndex), () -> combination + " did not use " + expectedIndex + ":\n" + sql + "\n" + plan);
+        assertFalse(plan.contains("Seq Scan on users"), () -> combination + " fell back to a sequential scan:\n" + sql + "\n" + plan);
+    }
+}
@@ -0,0 +1,246 @@
+package com.looyt.usermanagement.repository;
+
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.exception.InvalidRequestException;
+import com.looyt.usermanagement.model.User;
+import com.looyt.usermanagement.service.UserCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(SimpleMeterRegistry.class)
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        for (int i = 0; i < 7; i++) {
+            User user = new User();
+            user.setName("User " + (char) ('G' - i));
+            user.setEmail("user" + i + "@example.com");
+            user.setPhone("+123456789" + i);
+            user.setRole(i % 2 == 0 ? User.UserRole.USER : User.UserRole.ADMIN);
+            user.setActive(true);
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void keysetPagination_WalksAllRowsInSortOrder() {
+        Sort sort = Sort.by(Sort.Direction.ASC, "name");
+        List<String> names = new ArrayList<>();
+        ScrollPosition position = UserCursor.decode("", "name", Sort.Direction.ASC);
+
+        Window<User> window;
+        do {
+            ScrollPosition current = position;
+            window = userRepository.findBy(UserSpecifications.matching(new UserDTO.UserFilter()),
+                    query -> query.sortBy(sort).limit(3).scroll(current));
+            window.forEach(user -> names.add(user.getName()));
+            if (window.hasNext()) {
+                String cursor = UserCursor.encode(window.getContent().get(window.size() - 1), "name", Sort.Direction.ASC);
+                position = UserCursor.decode(cursor, "name", Sort.Direction.ASC);
+            }
+        } while (window.hasNext());
+
+        assertEquals(List.of("User A", "User B", "User C", "User D", "User E", "User F", "User G"), names);
+    }
+
+    @Test
+    void keysetPagination_WalksRowsWithNullUpdatedAt() {
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE users SET updated_at = NULL WHERE email = 'user3@example.com'")
+                .executeUpdate();
+        entityManager.clear();
+        Sort sort = Sort.by(Sort.Direction.ASC, "createdAt");
+        List<String> emails = new ArrayList<>();
+        ScrollPosition position = UserCursor.decode("", "createdAt", Sort.Direction.ASC);
+
+        Window<User> window;
+        do {
+            ScrollPosition current = position;
+            window = userRepository.findBy(UserSpecifications.matching(new UserDTO.UserFilter()),
+                    query -> query.sortBy(sort).limit(2).scroll(current));
+            window.forEach(user -> emails.add(user.getEmail()));
+            if (window.hasNext()) {
+                String cursor = UserCursor.encode(window.getContent().get(window.size() - 1), "createdAt", Sort.Direction.ASC);
+                position = UserCursor.decode(cursor, "createdAt", Sort.Direction.ASC);
+            }
+        } while (window.hasNext());
+
+        assertEquals(7, emails.size());
+        assertTrue(emails.contains("user3@example.com"));
+        assertNull(userRepository.findByEmail("user3@example.com").orElseThrow().getUpdatedAt());
+        // A nullable column cannot be seeked past, so cursor mode refuses it
+        assertThrows(InvalidRequestException.class, () -> UserCursor.validateSortKey("updatedAt"));
+    }
+
+    @Test
+    void keysetPagination_AppliesFilter() {
+        UserDTO.UserFilter filter = new UserDTO.UserFilter();
+        filter.setRole(User.UserRole.ADMIN);
+
+        Window<User> window = userRepository.findBy(UserSpecifications.matching(filter),
+                query -> query.sortBy(Sort.by("id")).limit(10).scroll(ScrollPosition.keyset()));
+
+        assertEquals(3, window.size());
+        assertFalse(window.hasNext());
+        assertTrue(window.stream().allMatch(user -> user.getRole() == User.UserRole.ADMIN));
+    }
+
+    @Test
+    void specification_CombinesAllGivenFilters() {
+        User inactiveAdmin = userRepository.findByEmail("user1@example.com").orElseThrow();
+        inactiveAdmin.setActive(false);
+        userRepository.save(inactiveAdmin);
+
+        UserDTO.UserFilter filter = new UserDTO.UserFilter(User.UserRole.ADMIN, true, "user",
+                LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1), null, null);
+
+        Page<User> page = userRepository.findAll(UserSpecifications.matching(filter), PageRequest.of(0, 10));
+
+        assertEquals(2, page.getTotalElements());
+        assertTrue(page.stream().allMatch(user -> user.getRole() == User.UserRole.ADMIN && user.getActive()));
+    }
+
+    @Test
+    void specification_EscapesLikeWildcards() {
+        UserDTO.UserFilter filter = new UserDTO.UserFilter();
+        filter.setNameFilter("%");
+
+        assertEquals(0, userRepository.count(UserSpecifications.matching(filter)));
+    }
+
+    @Test
+    void streamAll_StreamsFilteredRowsDetachedInOrder() {
+        UserDTO.UserFilter filter = new UserDTO.UserFilter();
+        filter.setRole(User.UserRole.USER);
+
+        List<User> users;
+        try (Stream<User> stream = userRepository.streamAll(UserSpecifications.matching(filter), Sort.by("id"), 2)) {
+            users = stream.toList();
+        }
+
+        assertEquals(4, users.size());
+        assertTrue(users.stream().allMatch(user -> user.getRole() == User.UserRole.USER));
+        assertTrue(users.stream().noneMatch(entityManager::contains));
+        for (int i = 1; i < users.size(); i++) {
+            assertTrue(users.get(i - 1).getId() < users.get(i).getId());
+        }
+    }
+
+    @Test
+    void findResponses_ProjectsFilteredPageWithoutManagedEntities() {
+        entityManager.clear();
+        UserDTO.UserFilter filter = new UserDTO.UserFilter();
+        filter.setRole(User.UserRole.ADMIN);
+
+        Page<UserDTO.UserResponse> page = userRepository.findResponses(UserSpecifications.matching(filter),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "name")));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("User F", "User D"), page.map(UserDTO.UserResponse::getName).getContent());
+        assertTrue(page.stream().allMatch(user -> user.getRole() == User.UserRole.ADMIN && user.getCreatedAt() != null));
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void findResponseById_ReturnsProjectionOrEmpty() {
+        User user = userRepository.findByEmail("user3@example.com").orElseThrow();
+
+        UserDTO.UserResponse response = userRepository.findResponseById(user.getId()).orElseThrow();
+
+        assertEquals(user.getEmail(), response.getEmail());
+        assertEquals(user.getPhone(), response.getPhone());
+        assertTrue(userRepository.findResponseById(-1L).isEmpty());
+    }
+
+    @Test
+    void findResponsesByIds_ReturnsExistingUsersOnly() {
+        User first = userRepository.findByEmail("user1@example.com").orElseThrow();
+        User second = userRepository.findByEmail("user5@example.com").orElseThrow();
+
+        List<UserDTO.UserResponse> responses = userRepository.findResponsesByIds(List.of(second.getId(), -1L, first.getId()));
+
+        assertEquals(List.of(first.getId(), second.getId()),
+                responses.stream().map(UserDTO.UserResponse::getId).sorted().toList());
+        assertEquals(second.getEmail(), responses.stream()
+                .filter(response -> response.getId().equals(second.getId())).findFirst().orElseThrow().getEmail());
+    }
+
+    @Test
+    void findResponseSlice_SetsHasNextFromOneExtraRow() {
+        Specification<User> all = UserSpecifications.matching(new UserDTO.UserFilter());
+        Sort byId = Sort.by("id");
+
+        Slice<UserDTO.UserResponse> middle = userRepository.findResponseSlice(all, PageRequest.of(1, 3, byId));
+        Slice<UserDTO.UserResponse> last = userRepository.findResponseSlice(all, PageRequest.of(2, 3, byId));
+
+        assertEquals(3, middle.getNumberOfElements());
+        assertTrue(middle.hasNext());
+        assertEquals(1, last.getNumberOfElements());
+        assertFalse(last.hasNext());
+    }
+
+    @Test
+    void patch_UpdatesGivenColumnsAndBumpsVersionOnlyAtExpectedVersion() {
+        User user = userRepository.findByEmail("user2@example.com").orElseThrow();
+        UserDTO.PatchUserRequest request = new UserDTO.PatchUserRequest();
+        request.setName("Renamed");
+        request.setVersion(user.getVersion());
+
+        UserDTO.UserResponse patched = userRepository.patch(user.getId(), request).orElseThrow();
+
+        assertEquals("Renamed", patched.getName());
+        assertEquals(user.getEmail(), patched.getEmail());
+        assertEquals(user.getPhone(), patched.getPhone());
+        assertEquals(user.getVersion() + 1, patched.getVersion());
+        // Replaying the same version no longer matches
+        assertTrue(userRepository.patch(user.getId(), request).isEmpty());
+    }
+
+    @Test
+    void update_SetsGivenColumnsAndBumpsVersionWithoutVersionCheck() {
+        User user = userRepository.findByEmail("user3@example.com").orElseThrow();
+        UserDTO.UpdateUserRequest request = new UserDTO.UpdateUserRequest();
+        request.setPhone("+19999999999");
+
+        UserDTO.UserResponse updated = userRepository.update(user.getId(), request).orElseThrow();
+        UserDTO.UserResponse again = userRepository.update(user.getId(), request).orElseThrow();
+
+        assertEquals("+19999999999", updated.getPhone());
+        assertEquals(user.getName(), updated.getName());
+        assertEquals(user.getVersion() + 1, updated.getVersion());
+        assertEquals(user.getVersion() + 2, again.getVersion());
+        assertTrue(userRepository.update(-1L, request).isEmpty());
+    }
+}
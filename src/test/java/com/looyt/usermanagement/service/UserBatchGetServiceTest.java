@@ -0,0 +1,71 @@
+package com.looyt.usermanagement.service;
+
+import com.looyt.usermanagement.cache.UserCache;
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.exception.InvalidRequestException;
+import com.looyt.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserBatchGetServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserCache userCache;
+
+    private UserBatchGetService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserBatchGetService(userRepository, userCache, 5, 2);
+    }
+
+    private static UserDTO.UserResponse user(long id) {
+        UserDTO.UserResponse user = new UserDTO.UserResponse();
+        user.setId(id);
+        return user;
+    }
+
+    private static List<UserDTO.UserResponse> users(long... ids) {
+        return LongStream.of(ids).mapToObj(UserBatchGetServiceTest::user).toList();
+    }
+
+    @Test
+    void getUsers_KeepsRequestOrderAndReportsMissingIds() {
+        when(userCache.get(anyLong())).thenReturn(Optional.empty());
+        when(userCache.get(7L)).thenReturn(Optional.of(user(7)));
+        // Chunks of two, rows come back in database order
+        when(userRepository.findResponsesByIds(List.of(9L, 3L))).thenReturn(users(3, 9));
+        when(userRepository.findResponsesByIds(List.of(4L))).thenReturn(List.of());
+
+        UserDTO.BatchGetResponse response = service.getUsers(new UserDTO.BatchGetRequest(List.of(9L, 7L, 3L, 9L, 4L)));
+
+        assertEquals(List.of(9L, 7L, 3L), response.getUsers().stream().map(UserDTO.UserResponse::getId).toList());
+        assertEquals(List.of(4L), response.getMissing());
+        verify(userRepository, times(2)).findResponsesByIds(any());
+        verify(userCache, times(2)).put(any());
+    }
+
+    @Test
+    void getUsers_RejectsEmptyAndOversizedRequests() {
+        assertThrows(InvalidRequestException.class, () -> service.getUsers(new UserDTO.BatchGetRequest(List.of())));
+        assertThrows(InvalidRequestException.class,
+                () -> service.getUsers(new UserDTO.BatchGetRequest(List.of(1L, 2L, 3L, 4L, 5L, 6L))));
+        verifyNoInteractions(userRepository);
+    }
+}
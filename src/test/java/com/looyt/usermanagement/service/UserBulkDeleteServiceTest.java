@@ -0,0 +1,100 @@
+package com.looyt.usermanagement.service;
+
+import com.looyt.usermanagement.cache.UserCache;
+import com.looyt.usermanagement.dto.UserDTO;
+import com.looyt.usermanagement.exception.InvalidRequestException;
+import com.looyt.usermanagement.kafka.UserEventOutbox;
+import com.looyt.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserBulkDeleteServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private UserEventOutbox eventOutbox;
+
+    @Mock
+    private UserCache userCache;
+
+    private UserBulkDeleteService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserBulkDeleteService(userRepository, transactionTemplate, eventOutbox, userCache, 2);
+    }
+
+    private void runTransactions() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static List<UserDTO.UserResponse> users(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> {
+            UserDTO.UserResponse user = new UserDTO.UserResponse();
+            user.setId(id);
+            return user;
+        }).toList();
+    }
+
+    @Test
+    void deleteUsers_ByFilter_RepeatsUntilShortChunk() {
+        runTransactions();
+        UserDTO.UserFilter filter = new UserDTO.UserFilter();
+        filter.setActive(false);
+        when(userRepository.deleteMatching(filter, 2)).thenReturn(users(1, 2))
+                .thenReturn(users(3, 4))
+                .thenReturn(users(5));
+
+        UserDTO.BulkDeleteResponse result = service.deleteUsers(new UserDTO.BulkDeleteRequest(null, filter));
+
+        assertEquals(5, result.getDeleted());
+        assertEquals(3, result.getChunks());
+        verify(eventOutbox, times(3)).appendAll(anyList());
+        verify(eventOutbox).appendAll(argThat(events -> events.size() == 1 && events.get(0).getUserId() == 5L));
+    }
+
+    @Test
+    void deleteUsers_ByIds_ChunksDistinctIds() {
+        runTransactions();
+        when(userRepository.deleteReturning(List.of(1L, 2L))).thenReturn(users(1, 2));
+        when(userRepository.deleteReturning(List.of(3L))).thenReturn(users());
+
+        UserDTO.BulkDeleteResponse result = service.deleteUsers(
+                new UserDTO.BulkDeleteRequest(List.of(1L, 2L, 2L, 3L), null));
+
+        assertEquals(2, result.getDeleted());
+        assertEquals(2, result.getChunks());
+        verify(userCache).evict(List.of(1L, 2L));
+    }
+
+    @Test
+    void deleteUsers_WithoutCriteria_ThrowsException() {
+        assertThrows(InvalidRequestException.class,
+                () -> service.deleteUsers(new UserDTO.BulkDeleteRequest(null, new UserDTO.UserFilter())));
+        assertThrows(InvalidRequestException.class,
+                () -> service.deleteUsers(new UserDTO.BulkDeleteRequest(List.of(1L), new UserDTO.UserFilter(null, false, null, null, null, null, null))));
+
+        verifyNoInteractions(userRepository);
+    }
+}
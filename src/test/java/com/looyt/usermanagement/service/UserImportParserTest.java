@@ -0,0 +1,117 @@
+package com.looyt.usermanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looyt.usermanagement.exception.InvalidRequestException;
+import com.looyt.usermanagement.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserImportParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private UserImportParser parser(String input, UserImportParser.Format format) {
+        return new UserImportParser(new BufferedReader(new StringReader(input)), format, objectMapper);
+    }
+
+    @Test
+    void csv_ParsesRowsByHeaderName() {
+        UserImportParser parser = parser(
+                "email,name,phone,role\n" +
+                "john@example.com,\"Doe, John\",+1234567890,admin\n" +
+                "\n" +
+                "jane@example.com,Jane,+1987654321,\n",
+                UserImportParser.Format.CSV);
+
+        UserImportParser.Row first = parser.next();
+        assertEquals(1, first.rowNumber());
+        assertNull(first.error());
+        assertEquals("Doe, John", first.request().getName());
+        assertEquals(User.UserRole.ADMIN, first.request().getRole());
+
+        UserImportParser.Row second = parser.next();
+        assertEquals(3, second.rowNumber());
+        assertEquals("jane@example.com", second.request().getEmail());
+        assertNull(second.request().getRole());
+
+        assertNull(parser.next());
+    }
+
+    @Test
+    void csv_QuotedNewline_StaysInOneRow() {
+        UserImportParser parser = parser(
+                "id,name,email,phone,role\n" +
+                "1,\"Doe,\nJohn \"\"JD\"\"\",john@example.com,+1234567890,USER\n" +
+                "2,Jane,jane@example.com,+1987654321,ADMIN\n",
+                UserImportParser.Format.CSV);
+
+        UserImportParser.Row first = parser.next();
+        assertNull(first.error());
+        assertEquals("Doe,\nJohn \"JD\"", first.request().getName());
+        assertEquals("john@example.com", first.request().getEmail());
+
+        UserImportParser.Row second = parser.next();
+        assertEquals(2, second.rowNumber());
+        assertEquals("Jane", second.request().getName());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void csv_UnterminatedQuote_ReportsRowError() {
+        UserImportParser parser = parser("name,email,phone\n\"John,john@example.com,+1234567890\n",
+                UserImportParser.Format.CSV);
+
+        UserImportParser.Row row = parser.next();
+        assertNull(row.request());
+        assertEquals("Unterminated quoted field", row.error());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void csv_UnknownRole_ReportsRowError() {
+        UserImportParser parser = parser("name,email,phone,role\nJohn,john@example.com,+1234567890,OWNER\n",
+                UserImportParser.Format.CSV);
+
+        assertEquals("Unknown role: OWNER", parser.next().error());
+    }
+
+    @Test
+    void csv_MissingColumn_ThrowsException() {
+        UserImportParser parser = parser("name,email\nJohn,john@example.com\n", UserImportParser.Format.CSV);
+
+        assertThrows(InvalidRequestException.class, parser::next);
+    }
+
+    @Test
+    void ndjson_MalformedLine_ReportsRowErrorAndContinues() {
+        UserImportParser parser = parser(
+                "{\"name\":\"John\",\"email\":\"john@example.com\",\"phone\":\"+1234567890\"}\n" +
+                "{not json\n",
+                UserImportParser.Format.NDJSON);
+
+        assertEquals("John", parser.next().request().getName());
+        assertEquals("Malformed JSON row", parser.next().error());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void ndjson_NullLine_ReportsRowErrorWithItsNumber() {
+        UserImportParser parser = parser("null\n\n{\"name\":\"John\"}\n", UserImportParser.Format.NDJSON);
+
+        UserImportParser.Row rejected = parser.next();
+        assertEquals(1, rejected.rowNumber());
+        assertNull(rejected.request());
+        assertEquals("Row is not a JSON object", rejected.error());
+        assertEquals(3, parser.next().rowNumber());
+    }
+
+    @Test
+    void splitCsv_HandlesEscapedQuotes() {
+        assertEquals(List.of("a \"b\"", "", "c"), UserImportParser.splitCsv("\"a \"\"b\"\"\",,c"));
+    }
+}
@@ -1,23 +1,56 @@
 package com.looyt.usermanagement.service;
 
+import com.looyt.usermanagement.cache.EmailMembershipFilter;
+import com.looyt.usermanagement.cache.UserCache;
+import com.looyt.usermanagement.cache.UserCountCache;
+import com.looyt.usermanagement.cache.UserReplica;
 import com.looyt.usermanagement.dto.UserDTO;
 import com.looyt.usermanagement.exception.DuplicateResourceException;
+import com.looyt.usermanagement.exception.InvalidRequestException;
 import com.looyt.usermanagement.exception.ResourceNotFoundException;
+import com.looyt.usermanagement.exception.StaleVersionException;
+import com.looyt.usermanagement.kafka.UserEventOutbox;
 import com.looyt.usermanagement.mapper.UserMapper;
 import com.looyt.usermanagement.model.User;
+import com.looyt.usermanagement.repository.UserCountEstimator;
 import com.looyt.usermanagement.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +62,30 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private UserEventOutbox eventOutbox;
+
+    @Mock
+    private EmailMembershipFilter emailFilter;
+
+    @Mock
+    private UserCountCache countCache;
+
+    @Mock
+    private UserCountEstimator countEstimator;
+
+    @Mock
+    private UserReplica replica;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private UserReadCoalescer readCoalescer = new UserReadCoalescer(
+            true, Duration.ZERO, mock(PlatformTransactionManager.class), meterRegistry);
+
     @InjectMocks
     private UserService userService;
 
@@ -65,9 +122,14 @@ class UserServiceTest {
         userResponse.setUpdatedAt(testUser.getUpdatedAt());
     }
 
+    private static UserDTO.UserListResponse listResponse(Slice<UserDTO.UserResponse> slice) {
+        UserDTO.UserListResponse response = new UserDTO.UserListResponse();
+        response.setUsers(slice.getContent());
+        return response;
+    }
+
     @Test
     void createUser_Success() {
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
         when(userMapper.toEntity(any(UserDTO.CreateUserRequest.class))).thenReturn(testUser);
         when(userRepository.save(any(User.class))).thenReturn(testUser);
         when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
@@ -80,42 +142,189 @@ class UserServiceTest {
         verify(userRepository, times(1)).save(any(User.class));
         verify(userMapper, times(1)).toEntity(any(UserDTO.CreateUserRequest.class));
         verify(userMapper, times(1)).toResponse(any(User.class));
+        verify(eventOutbox, times(1)).append(argThat(event -> "CREATED".equals(event.getEventType())));
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(emailFilter, times(1)).add("john.doe@example.com");
     }
 
     @Test
     void createUser_DuplicateEmail_ThrowsException() {
-        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+        when(userMapper.toEntity(any(UserDTO.CreateUserRequest.class))).thenReturn(testUser);
+        when(userRepository.save(any(User.class))).thenThrow(uniqueViolation());
 
         assertThrows(DuplicateResourceException.class, () -> {
             userService.createUser(createRequest);
         });
 
-        verify(userRepository, never()).save(any(User.class));
-        verify(userMapper, never()).toEntity(any(UserDTO.CreateUserRequest.class));
+        verify(userRepository, never()).existsByEmail(anyString());
+        verifyNoInteractions(eventOutbox);
+    }
+
+    @Test
+    void createUser_OtherIntegrityViolation_IsNotReportedAsDuplicate() {
+        when(userMapper.toEntity(any(UserDTO.CreateUserRequest.class))).thenReturn(testUser);
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("value too long"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(createRequest));
+        verifyNoInteractions(eventOutbox);
+    }
+
+    @Test
+    void isEmailAvailable_FilterNegative_SkipsRepository() {
+        when(emailFilter.mightContain("new@example.com")).thenReturn(false);
+
+        assertTrue(userService.isEmailAvailable("new@example.com"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void isEmailAvailable_FilterPositive_ChecksRepository() {
+        when(emailFilter.mightContain("john.doe@example.com")).thenReturn(true);
+        when(userRepository.existsByEmail("john.doe@example.com")).thenReturn(true);
+
+        assertFalse(userService.isEmailAvailable("john.doe@example.com"));
+    }
+
+    private static DataIntegrityViolationException uniqueViolation() {
+        return new DataIntegrityViolationException("duplicate key", new ConstraintViolationException(
+                "duplicate key", new SQLException("duplicate key", "23505"),
+                ConstraintViolationException.ConstraintKind.UNIQUE, "users_email_key"));
     }
 
     @Test
     void getUserById_Success() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
+        when(userRepository.findResponseById(1L)).thenReturn(Optional.of(userResponse));
 
         UserDTO.UserResponse response = userService.getUserById(1L);
 
         assertNotNull(response);
         assertEquals(1L, response.getId());
         assertEquals("John Doe", response.getName());
-        verify(userMapper, times(1)).toResponse(any(User.class));
+        verify(userRepository, never()).findById(anyLong());
+        verify(userMapper, never()).toResponse(any(User.class));
+        verify(userCache, times(1)).put(userResponse);
+    }
+
+    @Test
+    void getUserById_CacheHit_SkipsRepository() {
+        when(userCache.get(1L)).thenReturn(Optional.of(userResponse));
+
+        UserDTO.UserResponse response = userService.getUserById(1L);
+
+        assertEquals(userResponse, response);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getUserById_ReplicaServing_SkipsCacheAndRepository() {
+        when(replica.isServing()).thenReturn(true);
+        when(replica.get(1L)).thenReturn(Optional.of(userResponse));
+
+        assertEquals(userResponse, userService.getUserById(1L));
+
+        verifyNoInteractions(userRepository, userCache);
+    }
+
+    @Test
+    void getUserById_ReplicaMiss_FallsBackToRepository() {
+        when(replica.isServing()).thenReturn(true);
+        when(replica.get(1L)).thenReturn(Optional.empty());
+        when(replica.get(999L)).thenReturn(Optional.empty());
+        when(userRepository.findResponseById(1L)).thenReturn(Optional.of(userResponse));
+        when(userRepository.findResponseById(999L)).thenReturn(Optional.empty());
+
+        assertEquals(userResponse, userService.getUserById(1L));
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(999L));
     }
 
     @Test
     void getUserById_NotFound_ThrowsException() {
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userRepository.findResponseById(999L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             userService.getUserById(999L);
         });
 
-        verify(userMapper, never()).toResponse(any(User.class));
+        verify(userCache, never()).put(any());
+    }
+
+    @Test
+    void getUserById_ConcurrentMisses_ShareOneQuery() throws Exception {
+        int readers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findResponseById(1L)).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.of(userResponse);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<UserDTO.UserResponse>> results = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                results.add(executor.submit(() -> userService.getUserById(1L)));
+            }
+            // Hold the first query until every other reader is waiting on it
+            Counter coalesced = meterRegistry.get("user.coalescing.requests")
+                    .tags("name", "user", "result", "coalesced").counter();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (coalesced.count() < readers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<UserDTO.UserResponse> result : results) {
+                assertSame(userResponse, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(userRepository, times(1)).findResponseById(1L);
+        verify(userCache, times(1)).put(userResponse);
+        assertEquals(readers - 1, meterRegistry.get("user.coalescing.requests")
+                .tags("name", "user", "result", "coalesced").counter().count());
+    }
+
+    @Test
+    void getAllUsers_NoCount_SkipsCountQuery() {
+        Slice<UserDTO.UserResponse> slice = new SliceImpl<>(List.of(userResponse));
+        when(userRepository.findResponseSlice(any(), any())).thenReturn(slice);
+        when(userMapper.sliceToListResponse(any(), any(), any())).thenReturn(listResponse(slice));
+
+        userService.getAllUsers(0, 10, "id", "asc", new UserDTO.UserFilter(), UserDTO.CountType.NONE);
+
+        verify(userMapper).sliceToListResponse(slice, null, UserDTO.CountType.NONE);
+        verify(userRepository, never()).count(ArgumentMatchers.<Specification<User>>any());
+        verify(userRepository, never()).findResponses(any(), any());
+    }
+
+    @Test
+    void getAllUsers_NoEstimateAvailable_FallsBackToExactCount() {
+        Slice<UserDTO.UserResponse> slice = new SliceImpl<>(List.of(userResponse));
+        when(userRepository.findResponseSlice(any(), any())).thenReturn(slice);
+        when(userMapper.sliceToListResponse(any(), any(), any())).thenReturn(listResponse(slice));
+        when(countEstimator.estimate(any())).thenReturn(OptionalLong.empty());
+        when(userRepository.count(ArgumentMatchers.<Specification<User>>any())).thenReturn(1L);
+
+        userService.getAllUsers(0, 10, "id", "asc", new UserDTO.UserFilter(), UserDTO.CountType.ESTIMATED);
+
+        verify(userMapper).sliceToListResponse(slice, 1L, UserDTO.CountType.EXACT);
+    }
+
+    @Test
+    void searchUsers_EscapesLikeWildcards() {
+        when(userRepository.search(anyString(), anyString(), any())).thenReturn(Page.empty());
+
+        userService.searchUsers("50%_Off", 0, 10);
+
+        verify(userRepository).search(eq("50%_off"), eq("%50\\%\\_off%"), any());
+    }
+
+    @Test
+    void searchUsers_ShortQuery_ThrowsException() {
+        assertThrows(InvalidRequestException.class, () -> userService.searchUsers(" ab ", 0, 10));
+
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -124,37 +333,107 @@ class UserServiceTest {
         updateRequest.setName("Jane Doe");
         updateRequest.setPhone("+9876543210");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
-        doNothing().when(userMapper).updateEntityFromRequest(any(), any());
+        when(userRepository.update(1L, updateRequest)).thenReturn(Optional.of(userResponse));
 
         UserDTO.UserResponse response = userService.updateUser(1L, updateRequest);
 
         assertNotNull(response);
-        verify(userRepository, times(1)).save(any(User.class));
-        verify(userMapper, times(1)).updateEntityFromRequest(any(), any());
-        verify(userMapper, times(1)).toResponse(any(User.class));
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).saveAndFlush(any());
+        verify(eventOutbox, times(1)).append(argThat(event -> "UPDATED".equals(event.getEventType())));
     }
 
     @Test
-    void deleteUser_Success() {
+    void updateUser_NotFound_ThrowsException() {
+        UserDTO.UpdateUserRequest updateRequest = new UserDTO.UpdateUserRequest();
+        updateRequest.setName("Jane Doe");
+        when(userRepository.update(999L, updateRequest)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.updateUser(999L, updateRequest));
+        verifyNoInteractions(eventOutbox);
+    }
+
+    @Test
+    void patchUser_Success_AppendsEventWithNewVersion() {
+        UserDTO.PatchUserRequest request = new UserDTO.PatchUserRequest();
+        request.setName("Jane Doe");
+        request.setVersion(3L);
+        userResponse.setVersion(4L);
+        when(userRepository.patch(1L, request)).thenReturn(Optional.of(userResponse));
+
+        UserDTO.UserResponse result = userService.patchUser(1L, request);
+
+        assertEquals(4L, result.getVersion());
+        verify(userCache).put(userResponse);
+        verify(eventOutbox).append(argThat(event -> event.getVersion() == 4L));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void patchUser_InTransaction_CachesOnlyAfterCommit() {
+        UserDTO.PatchUserRequest request = new UserDTO.PatchUserRequest();
+        request.setName("Jane Doe");
+        request.setVersion(3L);
+        when(userRepository.patch(1L, request)).thenReturn(Optional.of(userResponse));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.patchUser(1L, request);
+
+            verify(userCache).evict(1L);
+            verify(userCache, never()).put(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(userCache).put(userResponse);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void patchUser_StaleVersion_ThrowsException() {
+        UserDTO.PatchUserRequest request = new UserDTO.PatchUserRequest();
+        request.setActive(false);
+        request.setVersion(3L);
+        when(userRepository.patch(1L, request)).thenReturn(Optional.empty());
         when(userRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(1L);
+
+        assertThrows(StaleVersionException.class, () -> userService.patchUser(1L, request));
+
+        verifyNoInteractions(eventOutbox, userCache);
+    }
+
+    @Test
+    void patchUser_NotFound_ThrowsException() {
+        UserDTO.PatchUserRequest request = new UserDTO.PatchUserRequest();
+        request.setActive(false);
+        request.setVersion(0L);
+        when(userRepository.patch(99L, request)).thenReturn(Optional.empty());
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.patchUser(99L, request));
+    }
+
+    @Test
+    void deleteUser_Success() {
+        when(userRepository.deleteReturning(1L)).thenReturn(Optional.of(userResponse));
 
         assertDoesNotThrow(() -> userService.deleteUser(1L));
 
-        verify(userRepository, times(1)).deleteById(1L);
+        verify(userCache).evict(1L);
+        verify(eventOutbox).append(argThat(event ->
+                event.getEventType().equals("DELETED") && event.getEmail().equals(userResponse.getEmail())));
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
     void deleteUser_NotFound_ThrowsException() {
-        when(userRepository.existsById(999L)).thenReturn(false);
+        when(userRepository.deleteReturning(999L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             userService.deleteUser(999L);
         });
 
-        verify(userRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(eventOutbox);
     }
 }
\ No newline at end of file